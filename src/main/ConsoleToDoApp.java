@@ -1,18 +1,22 @@
 import model.*;
 import utility.JsonFileIO;
+import utility.SearchIndex;
+import utility.TaskRepository;
 
 import java.util.*;
 
 // A simple "To Do" app
 public class ConsoleToDoApp {
-    private static List<Task> todo;
+    private static TaskRepository todo;
+    private static SearchIndex searchIndex;
     private static Scanner input;
     private static String userInput;
     private static boolean exit = false;
 
     public static void main(String[] args) {
         input = new Scanner(System.in);
-        todo = JsonFileIO.read();
+        todo = JsonFileIO.readRepository();
+        searchIndex = JsonFileIO.readSearchIndex(todo);
 
         printLogo();
         while (!exit) {
@@ -30,7 +34,12 @@ public class ConsoleToDoApp {
             case 'D':
                 displayTaskDetails();
                 break;
+            case 'S':
+                searchTasks();
+                break;
             case 'Q':
+                JsonFileIO.flush().join();
+                JsonFileIO.writeSearchIndex(searchIndex);
                 exit = true;
                 break;
             default:
@@ -39,12 +48,24 @@ public class ConsoleToDoApp {
     }
 
     private static void displayTaskDetails() {
-        for (Task task : todo) {
+        for (Task task : todo.snapshot()) {
             System.out.println(task);
         }
         pressEnterToContinue();
     }
 
+    private static void searchTasks() {
+        System.out.println("Enter words to search for:");
+        System.out.print("> ");
+        List<Task> found = searchIndex.search(input.nextLine());
+        if (found.isEmpty()) {
+            System.out.println("No task matches.");
+        } else {
+            displayTasks(found);
+        }
+        pressEnterToContinue();
+    }
+
     private static void pressEnterToContinue() {
         System.out.print("\nPress enter to continue ... ");
         input.nextLine();
@@ -52,8 +73,9 @@ public class ConsoleToDoApp {
 
     private static void addNewTask() {
         if (getDescriptionForTask()) {
-            todo.add(new Task(userInput));
-            JsonFileIO.write(todo);
+            Task task = new Task(userInput);
+            todo.add(task);
+            JsonFileIO.saveTaskLater(task);
         }
     }
 
@@ -101,15 +123,17 @@ public class ConsoleToDoApp {
         System.out.println("You can ...");
         System.out.println("\tEnter A to add a new task;");
         System.out.println("\tEnter D to show tasks' details;");
+        System.out.println("\tEnter S to search tasks;");
         System.out.println("\tEnter Q to quit.");
         System.out.print("> ");
     }
 
     private static void displayPendingTasks() {
-        if (todo.isEmpty()) {
+        List<Task> tasks = todo.snapshot();
+        if (tasks.isEmpty()) {
             System.out.println("Wow! you have no pending tasks.");
         } else {
-            displayTasks(todo);
+            displayTasks(tasks);
         }
         System.out.println("------------------------------");
     }
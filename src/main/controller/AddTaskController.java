@@ -4,7 +4,6 @@ import com.jfoenix.controls.JFXButton;
 import com.jfoenix.controls.JFXTextArea;
 import javafx.fxml.FXML;
 import model.Task;
-import ui.ListView;
 import ui.PomoTodoApp;
 import utility.JsonFileIO;
 import utility.Logger;
@@ -28,7 +27,7 @@ public class AddTaskController {
         try {
             Task task = new Task(description.getText());
             PomoTodoApp.getTasks().add(task);
-            JsonFileIO.write(PomoTodoApp.getTasks());
+            JsonFileIO.saveTaskLater(task);
         } catch (RuntimeException e) {
             Logger.log("AddTaskController", "Failed to create a new task from description " + description.getText());
         } finally {
@@ -36,6 +35,12 @@ public class AddTaskController {
         }
     }
 
+    // MODIFIES: this
+    // EFFECTS: clears the description, so that the UI can be shown again for the next task
+    public void clear() {
+        description.clear();
+    }
+
     // EFFECTS: return to the list view UI
     @FXML
     public void cancelNewTask() {
@@ -46,6 +51,6 @@ public class AddTaskController {
     // EFFECTS: return to the list view UI
     private void returnToListView() {
         Logger.log("AddTaskController", "Return to the list view UI.");
-        PomoTodoApp.setScene(new ListView(PomoTodoApp.getTasks()));
+        PomoTodoApp.showListView();
     }
 }
@@ -6,13 +6,13 @@ import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import model.DueDate;
+import model.Priority;
 import model.Status;
 import model.Tag;
 import model.Task;
-import ui.ListView;
 import ui.PomoTodoApp;
-import utility.JsonFileIO;
 import utility.Logger;
+import utility.TaskTransaction;
 
 import java.net.URL;
 import java.text.ParseException;
@@ -56,7 +56,7 @@ public class EditTaskController implements Initializable {
     }
 
     // REQUIRES: task != null
-    // EFFECTS: loads the UI
+    // EFFECTS: loads the UI, replacing whatever it showed for the task before (the UI is reused)
     private void load() {
         Logger.log("EditTaskController", "Load UI");
         displayDescription();
@@ -68,6 +68,7 @@ public class EditTaskController implements Initializable {
 
     // REQUIRES: task != null
     private void displayTags() {
+        tags.getChips().clear();
         for (Tag t : task.getTags()) {
             tags.getChips().add(t.getName());
         }
@@ -85,12 +86,8 @@ public class EditTaskController implements Initializable {
 
     // REQUIRES: task != null
     private void displayPriority() {
-        if (task.getPriority().isUrgent()) {
-            isUrgentBox.setSelected(true);
-        }
-        if (task.getPriority().isImportant()) {
-            isImportantBox.setSelected(true);
-        }
+        isUrgentBox.setSelected(task.getPriority().isUrgent());
+        isImportantBox.setSelected(task.getPriority().isImportant());
     }
 
     // REQUIRES: task != null
@@ -120,17 +117,19 @@ public class EditTaskController implements Initializable {
 
     // REQUIRES: task != null
     // MODIFIES: this
-    // EFFECTS: save the updates on UI to task
+    // EFFECTS: save the updates on UI to task, all at once; task is left unchanged if any of them fails
     @FXML
     public void saveTask() {
-        saveDescription();
-        saveDueDate();
-        saveStatus();
-        savePriority();
-        saveTags();
-        JsonFileIO.write(PomoTodoApp.getTasks());
+        TaskTransaction.run(PomoTodoApp.getTasks(), transaction -> {
+            transaction.edit(task);
+            saveDescription();
+            saveDueDate();
+            saveStatus();
+            savePriority();
+            saveTags();
+        });
         Logger.log("EditTaskController", "Save task:\n" + task);
-        PomoTodoApp.setScene(new ListView(PomoTodoApp.getTasks()));
+        PomoTodoApp.showListView();
     }
 
     // REQUIRES: task != null
@@ -182,15 +181,17 @@ public class EditTaskController implements Initializable {
     // REQUIRES: task != null
     private void savePriority() {
         Logger.log("EditTaskController", "Save priority");
-        task.getPriority().setImportant(isImportantBox.isSelected());
-        task.getPriority().setUrgent(isUrgentBox.isSelected());
+        Priority priority = new Priority(4);
+        priority.setImportant(isImportantBox.isSelected());
+        priority.setUrgent(isUrgentBox.isSelected());
+        task.setPriority(priority);
     }
 
     @FXML
     public void cancelEditTask() {
         Logger.log("EditTaskController", "Edit Task cancelled.");
         Logger.log("EditTaskController", "Close application");
-        PomoTodoApp.setScene(new ListView(PomoTodoApp.getTasks()));
+        PomoTodoApp.showListView();
     }
 
     @Override
@@ -1,22 +1,184 @@
 package controller;
 
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
-import javafx.scene.layout.VBox;
+import javafx.scene.control.ListView;
+import model.ModelEvent;
+import model.ModelEvents;
+import model.ModelListener;
+import model.Status;
 import model.Task;
-import ui.Todobar;
+import ui.TodobarCell;
+import utility.TaskIndex;
+import utility.TaskRepository;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
 
 // Controller class for ListView UI
 public class ListViewController {
+    // The ways the tasks can be listed: as they come, grouped by priority quadrant or grouped by status
+    public enum View { LIST, PRIORITY, STATUS }
+
     @FXML
-    private VBox tasks;
+    private ListView<Task> tasks;
+    // The cells created by the list view; cells it drops are forgotten once they are collected
+    private Set<TodobarCell> cells = Collections.newSetFromMap(new WeakHashMap<>());
+    private List<Task> shown;               // the tasks shown, kept in step with the repository
+    private ObservableList<Task> items;     // observable view of shown
+    private PriorityViewList byPriority;    // the tasks shown in the priority view, up to date once first shown
+    private ObservableList<Task> grouped;   // the tasks shown in the status view
+    private TaskIndex index;
+    private TaskRepository repository;
+    private TaskRepository.Listener repositoryListener;
+    private ModelListener modelListener;
+    private View view = View.LIST;
     
-    // EFFECTS: adds Todobar UI to ListView UI for each task
-    public void setData(List<Task> tasks) {
-        for (Task t : tasks) {
-            Todobar todobar = new Todobar(t);
-            this.tasks.getChildren().add(todobar);
+    // MODIFIES: this, repository, ModelEvents
+    // EFFECTS: shows the tasks of repository in the ListView UI; a Todobar is only created for each
+    //          visible row and reused as the list is scrolled
+    //          tasks added to or removed from repository are shown or hidden in place,
+    //          and rows are redrawn when their task changes (see ModelEvents)
+    //          the priority view follows the quadrants kept by index from the first time it is shown;
+    //          the status view is read from index
+    //          stops following the repository and index shown before, if any (see close)
+    public void setData(TaskRepository repository, TaskIndex index) {
+        close();
+        this.repository = repository;
+        this.index = index;
+        cells.clear();
+        this.tasks.setCellFactory(listView -> {
+            TodobarCell cell = new TodobarCell();
+            cells.add(cell);
+            return cell;
+        });
+        repositoryListener = this::tasksChanged;
+        shown = repository.mirror(repositoryListener);
+        items = FXCollections.observableList(shown);
+        grouped = FXCollections.observableArrayList();
+        this.tasks.setItems(items);
+        modelListener = this::refresh;
+        ModelEvents.addListener(modelListener);
+    }
+
+    // MODIFIES: this, repository, index, ModelEvents
+    // EFFECTS: stops following the repository, the index and the model; the tasks shown are not
+    //          updated any more. To be called when the ListView UI is no longer used
+    public void close() {
+        if (repository != null) {
+            repository.removeListener(repositoryListener);
+            ModelEvents.removeListener(modelListener);
+            repository = null;
+        }
+        if (byPriority != null) {
+            byPriority.close();
+            byPriority = null;
+        }
+    }
+
+    // EFFECTS: returns the view the tasks are currently listed in
+    public View getView() {
+        return view;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: lists the tasks in the given view
+    public void setView(View view) {
+        this.view = view;
+        if (view != View.STATUS) {
+            grouped.clear();
+        }
+        switch (view) {
+            case PRIORITY:
+                if (byPriority == null) {
+                    byPriority = new PriorityViewList(index);
+                }
+                tasks.setItems(byPriority);
+                break;
+            case STATUS:
+                regroup();
+                tasks.setItems(grouped);
+                break;
+            default:
+                tasks.setItems(items);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the tasks of the status view from the index, status by status
+    private void regroup() {
+        List<Task> ordered = new ArrayList<>(shown.size());
+        for (Status s : Status.values()) {
+            ordered.addAll(index.getTasks(s));
+        }
+        grouped.setAll(ordered);
+    }
+    
+    // MODIFIES: this
+    // EFFECTS: applies a change of the repository to the tasks shown, on the JavaFX application thread
+    private void tasksChanged(TaskRepository repository, Collection<Task> removed, List<Task> added) {
+        List<Task> toRemove = new ArrayList<>(removed);
+        List<Task> toAdd = new ArrayList<>(added);
+        onFxThread(() -> applyChange(toRemove, toAdd));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: hides the removed tasks and shows the added ones
+    private void applyChange(List<Task> removed, List<Task> added) {
+        for (Task t : removed) {
+            int i = TaskRepository.indexOf(shown, t);
+            if (i >= 0) {
+                items.remove(i);
+            }
+        }
+        items.addAll(added);
+        if (view == View.STATUS) {
+            regroup();
+        }
+    }
+
+    // EFFECTS: runs action on the JavaFX application thread; right away if called on that thread
+    private static void onFxThread(Runnable action) {
+        if (Platform.isFxApplicationThread()) {
+            action.run();
+        } else {
+            Platform.runLater(action);
+        }
+    }
+    
+    // EFFECTS: redraws the rows currently showing a task that changed in events, and regroups
+    //          the status view if a task in it changed status, on the JavaFX application thread
+    private void refresh(List<ModelEvent> events) {
+        Set<Task> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+        boolean moved = false;
+        for (ModelEvent e : events) {
+            if (e.getKind() != ModelEvent.Kind.CHILD_ADDED && e.getKind() != ModelEvent.Kind.CHILD_REMOVED) {
+                changed.add(e.getTask());
+                moved |= e.getKind() == ModelEvent.Kind.FIELD_CHANGED
+                        && e.getField() == ModelEvent.Field.STATUS;
+            }
+        }
+        boolean regroup = moved;
+        onFxThread(() -> redraw(changed, regroup));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: redraws the rows currently showing a task in changed; regroups the status view if regroup
+    private void redraw(Set<Task> changed, boolean regroup) {
+        if (regroup && view == View.STATUS) {
+            regroup();
+        }
+        for (TodobarCell cell : cells) {
+            if (changed.contains(cell.getItem())) {
+                cell.refresh();
+            }
         }
     }
-}
\ No newline at end of file
+}
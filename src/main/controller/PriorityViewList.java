@@ -0,0 +1,97 @@
+package controller;
+
+import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
+import model.Task;
+import utility.TaskIndex;
+import utility.TaskRows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// The tasks of the Priority View: the four quadrants of the Eisenhower matrix (important and urgent,
+// important, urgent, neither) one after the other. Each quadrant is kept up to date from the moves
+// reported by a TaskIndex, so the view is ready to show at any time: showing it only reads the rows
+// on screen, and a task whose priority changes is removed from one row and inserted at another.
+// Each quadrant is kept in TaskRows, so reading a row and moving a task take O(log n) for n tasks.
+class PriorityViewList extends ObservableListBase<Task> {
+    private TaskIndex index;
+    private TaskIndex.QuadrantListener listener;
+    private List<TaskRows> quadrants;       // quadrant q at q - 1; changed on the JavaFX application thread
+
+    // MODIFIES: index
+    // EFFECTS: lists the tasks of index by quadrant, and follows their moves from now on
+    PriorityViewList(TaskIndex index) {
+        this.index = index;
+        listener = this::quadrantChanged;
+        quadrants = new ArrayList<>();
+        for (List<Task> quadrant : index.mirrorQuadrants(listener)) {
+            quadrants.add(new TaskRows(quadrant));
+        }
+    }
+
+    // MODIFIES: index
+    // EFFECTS: stops following the moves of the tasks of index
+    void close() {
+        index.removeQuadrantListener(listener);
+    }
+
+    @Override
+    public Task get(int position) {
+        int i = position;
+        for (TaskRows quadrant : quadrants) {
+            if (i < quadrant.size()) {
+                return quadrant.get(i);
+            }
+            i -= quadrant.size();
+        }
+        throw new IndexOutOfBoundsException("Position: " + position + ", size: " + size());
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (TaskRows quadrant : quadrants) {
+            size += quadrant.size();
+        }
+        return size;
+    }
+
+    // EFFECTS: moves task from quadrant from to the end of quadrant to, on the JavaFX application thread
+    private void quadrantChanged(Task task, int from, int to) {
+        if (Platform.isFxApplicationThread()) {
+            move(task, from, to);
+        } else {
+            Platform.runLater(() -> move(task, from, to));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes task from quadrant from (if from is not 0) and appends it to quadrant to
+    //     (if to is not 0), reporting the removed and the added row as a single change
+    private void move(Task task, int from, int to) {
+        beginChange();
+        if (from != 0) {
+            int i = quadrants.get(from - 1).remove(task);
+            if (i >= 0) {
+                nextRemove(offsetOf(from) + i, task);
+            }
+        }
+        if (to != 0) {
+            TaskRows quadrant = quadrants.get(to - 1);
+            quadrant.add(task);
+            int added = offsetOf(to) + quadrant.size() - 1;
+            nextAdd(added, added + 1);
+        }
+        endChange();
+    }
+
+    // EFFECTS: returns the position of the first row of the given quadrant
+    private int offsetOf(int quadrant) {
+        int offset = 0;
+        for (int q = 1; q < quadrant; q++) {
+            offset += quadrants.get(q - 1).size();
+        }
+        return offset;
+    }
+}
@@ -12,24 +12,29 @@ import javafx.fxml.Initializable;
 import javafx.scene.control.Label;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.StackPane;
+import model.Tag;
 import model.Task;
-import ui.EditTask;
-import ui.ListView;
 import ui.PomoTodoApp;
-import utility.JsonFileIO;
 import utility.Logger;
+import utility.TaskTransaction;
 
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.ResourceBundle;
 
 // Controller class for Todobar UI
 public class TodobarController implements Initializable {
     private static final String todoOptionsPopUpFXML = "resources/fxml/TodoOptionsPopUp.fxml";
     private static final String todoActionsPopUpFXML = "resources/fxml/TodoActionsPopUp.fxml";
-    private File todoOptionsPopUpFxmlFile = new File(todoOptionsPopUpFXML);
-    private File todoActionsPopUpFxmlFile = new File(todoActionsPopUpFXML);
+    private static File todoOptionsPopUpFxmlFile = new File(todoOptionsPopUpFXML);
+    private static File todoActionsPopUpFxmlFile = new File(todoActionsPopUpFXML);
+
+    // Pop ups are shared by every Todobar: loaded on first use and bound to the Todobar that opened them
+    private static JFXPopup todoOptionsPopUp;
+    private static JFXPopup todoActionsPopUp;
+    private static TodobarController popUpOwner;
 
     @FXML
     private Label descriptionLabel;
@@ -42,9 +47,6 @@ public class TodobarController implements Initializable {
     @FXML
     private StackPane todoOptionsPopUpBurger;
 
-    private JFXPopup todoOptionsPopUp;
-    private JFXPopup todoActionsPopUp;
-
     private Task task;
 
     // REQUIRES: task != null
@@ -58,32 +60,37 @@ public class TodobarController implements Initializable {
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
-        loadTodoActionsPopUp();
         loadTodoActionsPopUpActionListener();
-        loadTodoOptionsPopUp();
         loadTodoOptionsPopUpActionListener();
     }
 
-    // EFFECTS: load options pop up (Edit, Delete)
-    private void loadTodoOptionsPopUp() {
-        try {
-            FXMLLoader fxmlLoader = new FXMLLoader(todoOptionsPopUpFxmlFile.toURI().toURL());
-            fxmlLoader.setController(new TodoOptionsPopUpController());
-            todoOptionsPopUp = new JFXPopup(fxmlLoader.load());
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+    // EFFECTS: returns options pop up (Edit, Delete), loading it on first use
+    private static JFXPopup getTodoOptionsPopUp() {
+        if (todoOptionsPopUp == null) {
+            try {
+                FXMLLoader fxmlLoader = new FXMLLoader(todoOptionsPopUpFxmlFile.toURI().toURL());
+                fxmlLoader.setController(new TodoOptionsPopUpController());
+                todoOptionsPopUp = new JFXPopup(fxmlLoader.load());
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
         }
+        return todoOptionsPopUp;
     }
 
-    // EFFECTS: load to do actions pop up (to do, up next, in progress, done, pomodoro!)
-    private void loadTodoActionsPopUp() {
-        try {
-            FXMLLoader fxmlLoader = new FXMLLoader(todoActionsPopUpFxmlFile.toURI().toURL());
-            fxmlLoader.setController(new TodoActionsPopUpController());
-            todoActionsPopUp = new JFXPopup(fxmlLoader.load());
-        } catch (IOException exception) {
-            throw new RuntimeException(exception);
+    // EFFECTS: returns to do actions pop up (to do, up next, in progress, done, pomodoro!),
+    //          loading it on first use
+    private static JFXPopup getTodoActionsPopUp() {
+        if (todoActionsPopUp == null) {
+            try {
+                FXMLLoader fxmlLoader = new FXMLLoader(todoActionsPopUpFxmlFile.toURI().toURL());
+                fxmlLoader.setController(new TodoActionsPopUpController());
+                todoActionsPopUp = new JFXPopup(fxmlLoader.load());
+            } catch (IOException exception) {
+                throw new RuntimeException(exception);
+            }
         }
+        return todoActionsPopUp;
     }
 
     // EFFECTS: show view selector pop up when its icon is clicked
@@ -91,7 +98,8 @@ public class TodobarController implements Initializable {
         todoOptionsPopUpBurger.setOnMouseClicked(new EventHandler<MouseEvent>() {
             @Override
             public void handle(MouseEvent e) {
-                todoOptionsPopUp.show(todoOptionsPopUpBurger,
+                popUpOwner = TodobarController.this;
+                getTodoOptionsPopUp().show(todoOptionsPopUpBurger,
                         JFXPopup.PopupVPosition.TOP,
                         JFXPopup.PopupHPosition.LEFT,
                         12,
@@ -105,7 +113,8 @@ public class TodobarController implements Initializable {
         todoActionsPopUpBurger.setOnMouseClicked(new EventHandler<MouseEvent>() {
             @Override
             public void handle(MouseEvent e) {
-                todoActionsPopUp.show(todoActionsPopUpBurger,
+                popUpOwner = TodobarController.this;
+                getTodoActionsPopUp().show(todoActionsPopUpBurger,
                         JFXPopup.PopupVPosition.TOP,
                         JFXPopup.PopupHPosition.RIGHT,
                         -12,
@@ -114,8 +123,8 @@ public class TodobarController implements Initializable {
         });
     }
 
-    // Inner class: view selector pop up controller
-    class TodoOptionsPopUpController {
+    // Nested class: view selector pop up controller, acts on the Todobar that opened the pop up
+    static class TodoOptionsPopUpController {
         @FXML
         private JFXListView<?> optionPopUpList;
 
@@ -125,11 +134,11 @@ public class TodobarController implements Initializable {
             switch (selectedIndex) {
                 case 0:
                     Logger.log("TodobarActionsPopUpController", "Edit is not implemented yet");
-                    PomoTodoApp.setScene(new EditTask(task));
+                    PomoTodoApp.showEditTask(popUpOwner.task);
                     break;
                 case 1:
                     Logger.log("TodobarActionsPopUpController", "Deleted task");
-                    deleteTask();
+                    popUpOwner.deleteTask();
                     break;
                 default:
                     Logger.log("TodobarActionsPopUpController", "No action is implemented for the selected option");
@@ -139,14 +148,17 @@ public class TodobarController implements Initializable {
     }
 
     private void deleteTask() {
-        PomoTodoApp.getTasks().remove(task);
-        JsonFileIO.write(PomoTodoApp.getTasks());
-        PomoTodoApp.setScene(new ListView(PomoTodoApp.getTasks()));
-
+        TaskTransaction.run(PomoTodoApp.getTasks(), transaction -> {
+            transaction.edit(task);
+            for (Tag t : new ArrayList<>(task.getTags())) {
+                task.removeTag(t);
+            }
+            transaction.remove(task);
+        });
     }
 
-    // Inner class: option pop up controller
-    class TodoActionsPopUpController {
+    // Nested class: option pop up controller
+    static class TodoActionsPopUpController {
         @FXML
         private JFXListView<?> actionPopUpList;
 
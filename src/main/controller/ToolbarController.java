@@ -9,8 +9,10 @@ import javafx.event.EventHandler;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
+import javafx.scene.control.Label;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.StackPane;
+import ui.PomoTodoApp;
 import utility.Logger;
 
 import java.io.File;
@@ -33,6 +35,8 @@ public class ToolbarController implements Initializable {
     private JFXRippler toolbarPopUpRippler;
     @FXML
     private StackPane toolbarPopUpBurger;
+    @FXML
+    private Label viewLabel;
 
     private JFXPopup toolbarPopUp;
     private JFXPopup viewPopUp;
@@ -106,18 +110,27 @@ public class ToolbarController implements Initializable {
             switch (selectedIndex) {
                 case 0:
                     Logger.log("TodobarActionsPopUpController", "List View Selected");
+                    showView(ListViewController.View.LIST, "List View");
                     break;
                 case 1:
-                    Logger.log("TodobarActionsPopUpController", "Priority View is not supported in this version!");
+                    Logger.log("TodobarActionsPopUpController", "Priority View Selected");
+                    showView(ListViewController.View.PRIORITY, "Priority View");
                     break;
                 case 2:
-                    Logger.log("TodobarActionsPopUpController", "Status View is not supported in this version!");
+                    Logger.log("TodobarActionsPopUpController", "Status View Selected");
+                    showView(ListViewController.View.STATUS, "Status View");
                     break;
                 default:
                     Logger.log("TodobarActionsPopUpController", "No action is implemented for the selected option");
             }
             viewPopUp.hide();
         }
+
+        // EFFECTS: lists the tasks in the given view and shows its name in the toolbar
+        private void showView(ListViewController.View view, String name) {
+            PomoTodoApp.getListView().setView(view);
+            viewLabel.setText(name);
+        }
     }
 
     // Inner class: option pop up controller
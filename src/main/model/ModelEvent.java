@@ -0,0 +1,84 @@
+package model;
+
+// Represents one change to the model: a field of a task changed, a child was added to or removed
+// from a project, or a tag was linked to or unlinked from a task
+// Events are pooled by ModelEvents and reused once they have been delivered,
+// so listeners must copy what they need instead of keeping the event
+public final class ModelEvent {
+    public enum Kind { FIELD_CHANGED, CHILD_ADDED, CHILD_REMOVED, TAG_LINKED, TAG_UNLINKED }
+
+    public enum Field { DESCRIPTION, STATUS, PRIORITY, DUE_DATE, PROGRESS, ESTIMATED_TIME_TO_COMPLETE }
+
+    private Kind kind;
+    private Todo source;
+    private Object target;
+    private Field field;
+    private Object oldValue;
+
+    ModelEvent() {
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes this event describe the given change
+    void set(Kind kind, Todo source, Object target, Field field, Object oldValue) {
+        this.kind = kind;
+        this.source = source;
+        this.target = target;
+        this.field = field;
+        this.oldValue = oldValue;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: drops the references held by this event so it can be pooled
+    void clear() {
+        set(null, null, null, null, null);
+    }
+
+    // EFFECTS: returns the kind of change
+    public Kind getKind() {
+        return kind;
+    }
+
+    // EFFECTS: returns the todo that changed: the task for FIELD_CHANGED, TAG_LINKED and TAG_UNLINKED,
+    //     the project for CHILD_ADDED and CHILD_REMOVED
+    public Todo getSource() {
+        return source;
+    }
+
+    // REQUIRES: getKind() is FIELD_CHANGED, TAG_LINKED or TAG_UNLINKED
+    // EFFECTS: returns the task that changed
+    public Task getTask() {
+        return (Task) source;
+    }
+
+    // REQUIRES: getKind() is CHILD_ADDED or CHILD_REMOVED
+    // EFFECTS: returns the todo added to or removed from getSource()
+    public Todo getChild() {
+        return (Todo) target;
+    }
+
+    // REQUIRES: getKind() is TAG_LINKED or TAG_UNLINKED
+    // EFFECTS: returns the tag linked to or unlinked from getTask()
+    public Tag getTag() {
+        return (Tag) target;
+    }
+
+    // REQUIRES: getKind() is FIELD_CHANGED
+    // EFFECTS: returns the field that changed
+    public Field getField() {
+        return field;
+    }
+
+    // REQUIRES: getKind() is FIELD_CHANGED
+    // EFFECTS: returns the value of getField() before the change (an Integer for progress and
+    //     estimated time to complete); the new value is read from getTask()
+    public Object getOldValue() {
+        return oldValue;
+    }
+
+    @Override
+    public String toString() {
+        return kind + (field == null ? "" : " " + field) + " " + source.getDescription()
+                + (target == null ? "" : " " + target);
+    }
+}
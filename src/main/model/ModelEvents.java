@@ -0,0 +1,169 @@
+package model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// The change events of the model, delivered to every registered ModelListener
+// Changes made between beginBatch() and the matching endBatch() are delivered together,
+// in one call per listener, when the outermost batch ends; other changes are delivered as they happen.
+// Event objects are pooled, and nothing is allocated for a change when no listener is registered.
+// Changes made by a listener while handling events are delivered after every listener has seen those events.
+// Batches belong to the thread that began them: changes are delivered on the thread that made them,
+// and a batch only holds back the changes of its own thread. No lock is held while listeners run,
+// so a listener may be called from several threads at once.
+public class ModelEvents {
+    private static List<ModelListener> listeners = new CopyOnWriteArrayList<>();
+    private static ThreadLocal<State> state = ThreadLocal.withInitial(State::new);
+
+    // MODIFIES: this
+    // EFFECTS: makes listener receive the changes made from now on
+    public static void addListener(ModelListener listener) {
+        listeners.add(listener);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops listener from receiving changes
+    public static void removeListener(ModelListener listener) {
+        listeners.remove(listener);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts a batch; changes are held back until the matching endBatch()
+    //     batches may be nested, in which case they are delivered when the outermost one ends
+    public static void beginBatch() {
+        State s = state.get();
+        s.batchStarts.push(s.pending.events.size());
+    }
+
+    // REQUIRES: a batch was started by beginBatch() and has not ended yet
+    // MODIFIES: this
+    // EFFECTS: ends the batch; delivers the changes made in it if it is the outermost batch
+    public static void endBatch() {
+        State s = state.get();
+        s.batchStarts.pop();
+        if (s.batchStarts.isEmpty()) {
+            deliver(s);
+        }
+    }
+
+    // REQUIRES: a batch was started by beginBatch() and has not ended yet
+    // MODIFIES: this
+    // EFFECTS: ends the batch and drops the changes made in it, e.g. because they have been undone;
+    //     changes made before the batch began are delivered if no batch is open any more
+    public static void cancelBatch() {
+        State s = state.get();
+        int start = s.batchStarts.pop();
+        List<ModelEvent> events = s.pending.events;
+        while (events.size() > start) {
+            ModelEvent event = events.remove(events.size() - 1);
+            event.clear();
+            s.pool.push(event);
+        }
+        if (s.batchStarts.isEmpty()) {
+            deliver(s);
+        }
+    }
+
+    // EFFECTS: reports that field of task changed from oldValue
+    static void fieldChanged(Task task, ModelEvent.Field field, Object oldValue) {
+        fire(ModelEvent.Kind.FIELD_CHANGED, task, null, field, oldValue);
+    }
+
+    // EFFECTS: reports that child was added to project
+    static void childAdded(Project project, Todo child) {
+        fire(ModelEvent.Kind.CHILD_ADDED, project, child, null, null);
+    }
+
+    // EFFECTS: reports that child was removed from project
+    static void childRemoved(Project project, Todo child) {
+        fire(ModelEvent.Kind.CHILD_REMOVED, project, child, null, null);
+    }
+
+    // EFFECTS: reports that tag was linked to task
+    static void tagLinked(Task task, Tag tag) {
+        fire(ModelEvent.Kind.TAG_LINKED, task, tag, null, null);
+    }
+
+    // EFFECTS: reports that tag was unlinked from task
+    static void tagUnlinked(Task task, Tag tag) {
+        fire(ModelEvent.Kind.TAG_UNLINKED, task, tag, null, null);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: queues the described change and delivers it unless a batch is open on this thread
+    private static void fire(ModelEvent.Kind kind, Todo source, Object target,
+                             ModelEvent.Field field, Object oldValue) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        State s = state.get();
+        ModelEvent event = s.pool.isEmpty() ? new ModelEvent() : s.pool.pop();
+        event.set(kind, source, target, field, oldValue);
+        s.pending.events.add(event);
+        if (s.batchStarts.isEmpty()) {
+            deliver(s);
+        }
+    }
+
+    // MODIFIES: s
+    // EFFECTS: hands the changes queued in s to every listener and returns their events to the pool;
+    //     repeats for the changes made by the listeners meanwhile
+    private static void deliver(State s) {
+        if (s.delivering) {
+            return;
+        }
+        s.delivering = true;
+        try {
+            while (!s.pending.events.isEmpty()) {
+                Buffer batch = s.pending;
+                s.pending = s.spare;
+                s.spare = batch;
+                notifyListeners(batch.view);
+                recycle(s, batch);
+            }
+        } finally {
+            s.delivering = false;
+        }
+    }
+
+    // MODIFIES: s, batch
+    // EFFECTS: empties batch, returning its events to the pool of s
+    private static void recycle(State s, Buffer batch) {
+        for (ModelEvent event : batch.events) {
+            event.clear();
+            s.pool.push(event);
+        }
+        batch.events.clear();
+    }
+
+    // EFFECTS: hands events to every listener; a listener that fails does not keep the others from them
+    private static void notifyListeners(List<ModelEvent> events) {
+        for (ModelListener listener : listeners) {
+            try {
+                listener.modelChanged(events);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    // The changes made on one thread: the events not delivered yet, the batches open and
+    // the pooled event objects
+    private static class State {
+        private Deque<ModelEvent> pool = new ArrayDeque<>();
+        private Buffer pending = new Buffer();
+        private Buffer spare = new Buffer();
+        private Deque<Integer> batchStarts = new ArrayDeque<>();   // pending size when each open batch began
+        private boolean delivering = false;
+    }
+
+    // A list of events together with the read-only view of it handed to listeners
+    private static class Buffer {
+        private List<ModelEvent> events = new ArrayList<>();
+        private List<ModelEvent> view = Collections.unmodifiableList(events);
+    }
+}
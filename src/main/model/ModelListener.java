@@ -0,0 +1,11 @@
+package model;
+
+import java.util.List;
+
+// Receives the changes made to the model (see ModelEvents)
+public interface ModelListener {
+    // EFFECTS: handles events, in the order the changes were made; events holds a single
+    //     event unless the changes were made in a batch. Neither events nor the events in it
+    //     may be kept after this returns
+    void modelChanged(List<ModelEvent> events);
+}
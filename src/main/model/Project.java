@@ -6,10 +6,14 @@ import model.exceptions.NullArgumentException;
 import java.util.*;
 
 // Represents a Project, a collection of zero or more Tasks
-// Class Invariant: no duplicated task; order of tasks is preserved
+// Class Invariant: no duplicated task; order of tasks is preserved;
+//     progressSum is the sum of the progress of the tasks,
+//     etcHours is the sum of their estimated time to complete and
+//     progress is progressSum / number of tasks (100 if there are no tasks)
 public class Project extends Todo implements Iterable<Todo> {
     private String description;
-    private List<Todo> tasks;
+    private TodoIdSet<Todo> tasks;
+    private int progressSum;
 
     // MODIFIES: this
     // EFFECTS: constructs a project with the given description
@@ -18,7 +22,9 @@ public class Project extends Todo implements Iterable<Todo> {
     public Project(String description) {
         super(description);
         this.description = description;
-        tasks = new ArrayList<>();
+        tasks = new TodoIdSet<>();
+        progressSum = 0;
+        progress = 100;
     }
 
     // MODIFIES: this
@@ -26,7 +32,48 @@ public class Project extends Todo implements Iterable<Todo> {
     //   throws NullArgumentException when task is null
     public void add(Todo task) {
         if (!contains(task)) {
+            int oldProgress = progress;
+            int oldEtcHours = etcHours;
             tasks.add(task);
+            linkChild(task);
+            updateProgress();
+            notifyParents(oldProgress, oldEtcHours);
+            ModelEvents.childAdded(this, task);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: every task in toAdd is added to this project (if it was not already part of it),
+    //     in the iteration order of toAdd; the additions are reported to ModelEvents in one batch
+    //   throws NullArgumentException when toAdd or any task in it is null; no task is added in that case
+    public void addAll(Collection<? extends Todo> toAdd) {
+        checkNoneNull(toAdd);
+        int oldProgress = progress;
+        int oldEtcHours = etcHours;
+        ModelEvents.beginBatch();
+        try {
+            for (Todo t : toAdd) {
+                if (tasks.add(t)) {
+                    linkChild(t);
+                    ModelEvents.childAdded(this, t);
+                }
+            }
+            updateProgress();
+            notifyParents(oldProgress, oldEtcHours);
+        } finally {
+            ModelEvents.endBatch();
+        }
+    }
+
+    // EFFECTS: throws NullArgumentException when toAdd or any task in it is null
+    private static void checkNoneNull(Collection<? extends Todo> toAdd) {
+        if (toAdd == null) {
+            throw new NullArgumentException("Illegal argument: tasks is null");
+        }
+        for (Todo t : toAdd) {
+            if (t == null) {
+                throw new NullArgumentException("Illegal argument: task is null");
+            }
         }
     }
 
@@ -35,10 +82,45 @@ public class Project extends Todo implements Iterable<Todo> {
     //   throws NullArgumentException when task is null
     public void remove(Todo task) {
         if (contains(task)) {
+            int oldProgress = progress;
+            int oldEtcHours = etcHours;
             tasks.remove(task);
+            task.removeParent(this);
+            progressSum -= task.getProgress();
+            etcHours -= task.getEstimatedTimeToComplete();
+            updateProgress();
+            notifyParents(oldProgress, oldEtcHours);
+            ModelEvents.childRemoved(this, task);
         }
     }
 
+    // MODIFIES: this
+    // EFFECTS: updates the progress and estimated time to complete of this project after
+    //     one of its tasks changed from (oldProgress, oldEtcHours) to (newProgress, newEtcHours)
+    void childChanged(int oldProgress, int newProgress, int oldEtcHours, int newEtcHours) {
+        int oldOwnProgress = progress;
+        int oldOwnEtcHours = etcHours;
+        progressSum += newProgress - oldProgress;
+        etcHours += newEtcHours - oldEtcHours;
+        updateProgress();
+        notifyParents(oldOwnProgress, oldOwnEtcHours);
+    }
+
+    // MODIFIES: this, task
+    // EFFECTS: makes task report its changes to this project and adds its
+    //     progress and estimated time to complete to the totals of this project
+    private void linkChild(Todo task) {
+        task.addParent(this);
+        progressSum += task.getProgress();
+        etcHours += task.getEstimatedTimeToComplete();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: recomputes progress from progressSum and the number of tasks
+    private void updateProgress() {
+        progress = tasks.isEmpty() ? 100 : progressSum / tasks.size();
+    }
+
     // EFFECTS: returns the description of this project
     public String getDescription() {
         return description;
@@ -46,12 +128,7 @@ public class Project extends Todo implements Iterable<Todo> {
 
     @Override
     public int getEstimatedTimeToComplete() {
-        int toReturn;
-        toReturn = 0;
-        for (Todo t : tasks) {
-            toReturn += t.getEstimatedTimeToComplete();
-        }
-        return toReturn;
+        return etcHours;
     }
 
     // EFFECTS: returns an unmodifiable list of tasks in this project.
@@ -64,13 +141,7 @@ public class Project extends Todo implements Iterable<Todo> {
     //     the percentage of completed tasks (rounded down to the closest integer).
     //     returns 100 if this project has no tasks!
     public int getProgress() {
-        int numerator = 0;
-        int denominator = 0;
-        for (Todo t : tasks) {
-            denominator++;
-            numerator += t.getProgress();
-        }
-        return numerator / denominator;
+        return progress;
     }
 
     // EFFECTS: returns the number of tasks (and sub-projects) in this project
@@ -81,7 +152,7 @@ public class Project extends Todo implements Iterable<Todo> {
     // EFFECTS: returns true if every task (and sub-project) in this project is completed, and false otherwise
     //     If this project has no tasks (or sub-projects), return false.
     public boolean isCompleted() {
-        return getNumberOfTasks() != 0 && getProgress() == 100;
+        return getNumberOfTasks() != 0 && progress == 100;
     }
 
     // EFFECTS: returns true if this project contains the task
@@ -115,73 +186,51 @@ public class Project extends Todo implements Iterable<Todo> {
         return new PriorityIterator();
     }
 
+    // Iterates over the tasks of this project in order of priority: important & urgent first,
+    // then important, then urgent, then neither. Tasks of the same priority are returned in
+    // the order they were added. Tasks are bucketed once, when the iterator is created.
     private class PriorityIterator implements Iterator<Todo> {
-        private int total;
-        private boolean doneImpAndUrg;
-        private boolean doneImp;
-        private boolean doneUrg;
-        private boolean doneNotImpOrUrg;
+        private static final int QUADRANTS = 4;
+        private List<List<Todo>> buckets;
+        private int quadrant;
+        private int index;
 
         public PriorityIterator() {
-            total = 0;
-            doneImpAndUrg = false;
-            doneImp = false;
-            doneUrg = false;
-            doneNotImpOrUrg = false;
+            buckets = new ArrayList<>(QUADRANTS);
+            for (int i = 0; i < QUADRANTS; i++) {
+                buckets.add(new ArrayList<>());
+            }
+            for (Todo t : tasks) {
+                buckets.get(priorityToInt(t) - 1).add(t);
+            }
+            quadrant = 0;
+            index = 0;
+            skipEmptyBuckets();
         }
 
         @Override
         public boolean hasNext() {
-            return total < tasks.size();
+            return quadrant < QUADRANTS;
         }
 
         @Override
         public Todo next() throws NoSuchElementException {
-            if (hasNext()) {
-                if (!doneImpAndUrg) {
-                    Todo t = getNextItem(1);
-                    if (t != null) {
-                        return t;
-                    }
-                }
-                if (!doneImp) {
-                    Todo t = getNextItem(2);
-                    if (t != null) {
-                        return t;
-                    }
-                }
-                return otherHalf();
+            if (!hasNext()) {
+                throw new NoSuchElementException();
             }
-            throw new NoSuchElementException();
+            Todo t = buckets.get(quadrant).get(index);
+            index++;
+            skipEmptyBuckets();
+            return t;
         }
 
-        private Todo otherHalf() {
-            if (hasNext()) {
-                if (!doneUrg) {
-                    Todo t = getNextItem(3);
-                    if (t != null) {
-                        return t;
-                    }
-                }
-                if (!doneNotImpOrUrg) {
-                    Todo t = getNextItem(4);
-                    if (t != null) {
-                        return t;
-                    }
-                }
+        // MODIFIES: this
+        // EFFECTS: moves to the next quadrant that still has tasks to return
+        private void skipEmptyBuckets() {
+            while (quadrant < QUADRANTS && index >= buckets.get(quadrant).size()) {
+                quadrant++;
+                index = 0;
             }
-            throw new NoSuchElementException();
-        }
-
-        private Todo getNextItem(int n) {
-            for (int i = 0; i < tasks.size(); i++) {
-                if (priorityToInt(tasks.get(i)) == n) {
-                    total += 1;
-                    return tasks.get(i);
-                }
-            }
-            flipBooleans(n);
-            return null;
         }
 
         private int priorityToInt(Todo t) {
@@ -198,18 +247,6 @@ public class Project extends Todo implements Iterable<Todo> {
             }
         }
 
-        private void flipBooleans(int n) {
-            if (n == 1) {
-                doneImpAndUrg = true;
-            } else if (n == 2) {
-                doneImp = true;
-            } else if (n == 3) {
-                doneUrg = true;
-            } else {
-                doneNotImpOrUrg = true;
-            }
-        }
-
     }
 
 }
\ No newline at end of file
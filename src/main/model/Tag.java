@@ -3,25 +3,33 @@ package model;
 import model.exceptions.EmptyStringException;
 import model.exceptions.NullArgumentException;
 
-import java.util.Collections;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
 // Represents a tag having a name
+// Tags are only created by TagRegistry.intern, so there is one Tag per name and its set of tasks
+// is the inverted index from that name to the tasks having it (see TagRegistry);
+// the set is guarded by its own lock, so tasks on different threads can be tagged at once
 public class Tag {
     private String name;
-    private Set<Task> tasks;
+    private TodoIdSet<Task> tasks;
 
     // MODIFIES: this
-    // EFFECTS: creates a Tag with the given name
+    // EFFECTS: creates a Tag with the given name and no tasks; to be called by TagRegistry only
     //    throws EmptyStringException if name is null or empty
-    public Tag(String name) {
+    Tag(String name) {
+        checkName(name);
+        this.name = name;
+        this.tasks = new TodoIdSet<>();
+    }
+
+    // EFFECTS: throws EmptyStringException if name is null or empty
+    static void checkName(String name) {
         if (name == null || name.length() == 0) {
             throw new EmptyStringException("Cannot construct a tag with no name");
         }
-        this.name = name;
-        tasks = new HashSet<>();
     }
     
     // EFFECTS: returns the name of this tag
@@ -33,8 +41,12 @@ public class Tag {
     // EFFECTS: adds task to the collection of tasks in this tag if it is not already exist
     //  throws NullArgumentException if task is null
     public void addTask(Task task) {
-        if (!containsTask(task)) {
-            tasks.add(task);
+        checkNotNull(task);
+        boolean added;
+        synchronized (tasks) {
+            added = tasks.add(task);
+        }
+        if (added) {
             task.addTag(this);
         }
     }
@@ -43,8 +55,12 @@ public class Tag {
     // EFFECTS: removes task from the collection of tasks in this tag
     //  throws NullArgumentException if task is null
     public void removeTask(Task task) {
-        if (containsTask(task)) {
-            tasks.remove(task);
+        checkNotNull(task);
+        boolean removed;
+        synchronized (tasks) {
+            removed = tasks.remove(task);
+        }
+        if (removed) {
             task.removeTag(this);
         }
     }
@@ -53,15 +69,40 @@ public class Tag {
     //     returns false otherwise
     //  throws NullArgumentException if task is null
     public boolean containsTask(Task task) {
+        checkNotNull(task);
+        synchronized (tasks) {
+            return tasks.contains(task);
+        }
+    }
+
+    // EFFECTS: throws NullArgumentException if task is null
+    private void checkNotNull(Task task) {
         if (task == null) {
             throw new NullArgumentException("Invalid argument: task cannot be null");
         }
-        return tasks.contains(task);
     }
     
-    // EFFECTS: returns an unmodifiable set of tasks that have this tag
+    // EFFECTS: returns the number of tasks that have this tag
+    public int countTasks() {
+        synchronized (tasks) {
+            return tasks.size();
+        }
+    }
+
+    // EFFECTS: returns a copy of the tasks that have this tag, in the order they were tagged
+    public List<Task> copyTasks() {
+        synchronized (tasks) {
+            return new ArrayList<>(tasks);
+        }
+    }
+
+    // EFFECTS: returns a copy of the set of tasks that have this tag, taken under the lock of the set
     public Set<Task> getTasks() {
-        return Collections.unmodifiableSet(tasks);
+        synchronized (tasks) {
+            TodoIdSet<Task> copy = new TodoIdSet<>();
+            copy.addAll(tasks);
+            return copy;
+        }
     }
     
     
@@ -0,0 +1,99 @@
+package model;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Interns tags by name so that every task with a given tag shares a single Tag instance;
+// the set of tasks of each interned tag is the inverted index from tag name to tasks
+// Tags may be interned from several threads at once (e.g., by TaskParser.parseParallel)
+// A tag is only held weakly: once no task (or anything else) refers to it, it is dropped from
+// the registry, and interning its name again creates a new tag.
+// Note: a task joins the index when it is built, so the tasks of a MappedTaskList that have not
+//     been read yet are missing from it; a TaskIndex builds every task it indexes, so its queries by
+//     tag are complete.
+public class TagRegistry {
+    private static Map<String, TagReference> tags = new ConcurrentHashMap<>();
+    private static ReferenceQueue<Tag> dropped = new ReferenceQueue<>();
+
+    // A weak reference to an interned tag, which remembers the name it is registered under
+    private static class TagReference extends WeakReference<Tag> {
+        private final String name;
+
+        TagReference(Tag tag) {
+            super(tag, dropped);
+            name = tag.getName();
+        }
+    }
+
+    // EFFECTS: returns the tag with the given name, creating and registering it if needed;
+    //    every caller gets the same instance, even when several threads intern a new name at once
+    //    throws EmptyStringException if name is null or empty
+    public static Tag intern(String name) {
+        Tag.checkName(name);
+        purge();
+        while (true) {
+            TagReference registered = tags.get(name);
+            Tag tag = registered == null ? null : registered.get();
+            if (tag != null) {
+                return tag;
+            }
+            tag = new Tag(name);
+            TagReference created = new TagReference(tag);
+            if (registered == null ? tags.putIfAbsent(name, created) == null
+                    : tags.replace(name, registered, created)) {
+                return tag;
+            }
+        }
+    }
+
+    // EFFECTS: returns the tag with the given name, or null if there is no such tag
+    public static Tag lookup(String name) {
+        TagReference registered = name == null ? null : tags.get(name);
+        return registered == null ? null : registered.get();
+    }
+
+    // EFFECTS: returns a copy of the set of the tasks tagged with the given name
+    public static Set<Task> getTasksTagged(String name) {
+        Tag tag = lookup(name);
+        if (tag == null) {
+            return Collections.emptySet();
+        }
+        return tag.getTasks();
+    }
+
+    // EFFECTS: returns the registered tags
+    public static Collection<Tag> getTags() {
+        List<Tag> registered = new ArrayList<>();
+        for (TagReference reference : tags.values()) {
+            Tag tag = reference.get();
+            if (tag != null) {
+                registered.add(tag);
+            }
+        }
+        return registered;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forgets every registered tag, so that tags created from now on start with no tasks;
+    //     tags created before keep the tasks they have (used by tests to start from an empty registry)
+    public static void reset() {
+        tags.clear();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the entries of the tags that have been dropped
+    private static void purge() {
+        for (Reference<? extends Tag> r = dropped.poll(); r != null; r = dropped.poll()) {
+            TagReference reference = (TagReference) r;
+            tags.remove(reference.name, reference);
+        }
+    }
+}
@@ -4,9 +4,7 @@ import model.exceptions.EmptyStringException;
 import model.exceptions.InvalidProgressException;
 import model.exceptions.NegativeInputException;
 import model.exceptions.NullArgumentException;
-import parsers.Parser;
-import parsers.TagParser;
-import parsers.exceptions.ParsingException;
+import parsers.MetadataParser;
 
 import java.util.*;
 
@@ -18,6 +16,7 @@ public class Task extends Todo {
     private Set<Tag> tags;
     private DueDate dueDate;
     private Status status;
+    private boolean constructed;    // changes are only reported once the task is constructed
 
     // MODIFIES: this
     // EFFECTS: constructs a task with the given description
@@ -27,20 +26,60 @@ public class Task extends Todo {
     //  throws EmptyStringException if description is null or empty
     public Task(String description) {
         super(description);
+        init(description);
+    }
+
+    // REQUIRES: no other todo has the given id
+    // MODIFIES: this
+    // EFFECTS: constructs a task with the given id and description,
+    //     as in Task(description); used to restore saved tasks with their ids
+    //  throws EmptyStringException if description is null or empty
+    public Task(long id, String description) {
+        super(id, description);
+        init(description);
+    }
+
+    // REQUIRES: no other todo has the given id; description holds no meta-data (e.g., it was saved from a task)
+    // MODIFIES: this, tags
+    // EFFECTS: constructs a saved task with the given id and fields, joining the given tags; description
+    //     is not parsed and nothing is reported to ModelEvents (used to read saved tasks on any thread)
+    //  throws EmptyStringException if description is null or empty
+    //  throws NullArgumentException if status, priority, tags or any tag is null
+    public Task(long id, String description, Status status, Priority priority, DueDate dueDate,
+                Collection<Tag> tags) {
+        super(id, description);
+        if (status == null || priority == null || tags == null) {
+            throw new NullArgumentException("Illegal argument: status, priority and tags cannot be null");
+        }
+        this.description = description;
+        this.tags = new HashSet<>();
+        this.status = status;
+        this.priority = priority;
+        this.dueDate = dueDate;
+        for (Tag t : tags) {
+            addTag(t);
+        }
+        constructed = true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets up a newly constructed task with the given description
+    private void init(String description) {
         this.description = description;
         tags = new HashSet<>();
         dueDate = NO_DUE_DATE;
         status = Status.TODO;
         setDescription(description);
+        constructed = true;
     }
 
 
     // MODIFIES: this
-    // EFFECTS: creates a tag with name tagName and adds it to this task
+    // EFFECTS: adds the tag with name tagName (interned in TagRegistry) to this task
     //  throws EmptyStringException if tagName is null or empty
     // Note: no two tags are to have the same name
     public void addTag(String tagName) {
-        addTag(new Tag(tagName));
+        addTag(TagRegistry.intern(tagName));
     }
 
     // MODIFIES: this
@@ -50,6 +89,9 @@ public class Task extends Todo {
         if (!containsTag(tag)) {
             tags.add(tag);
             tag.addTask(this);
+            if (constructed) {
+                ModelEvents.tagLinked(this, tag);
+            }
         }
     }
 
@@ -57,7 +99,11 @@ public class Task extends Todo {
     // EFFECTS: removes the tag with name tagName from this task
     //  throws EmptyStringException if tagName is empty or null
     public void removeTag(String tagName) {
-        removeTag(new Tag(tagName));
+        checkTagName(tagName);
+        Tag tag = TagRegistry.lookup(tagName);
+        if (tag != null) {
+            removeTag(tag);
+        }
     }
 
     // MODIFIES: this
@@ -67,6 +113,9 @@ public class Task extends Todo {
         if (containsTag(tag)) {
             tags.remove(tag);
             tag.removeTask(this);
+            if (constructed) {
+                ModelEvents.tagUnlinked(this, tag);
+            }
         }
     }
 
@@ -83,11 +132,17 @@ public class Task extends Todo {
     // MODIFIES: this
     // EFFECTS: sets the priority of this task
     //   throws NullArgumentException when priority is null
+    // Note: changes made directly to the Priority returned by getPriority() are not reported
+    //     to ModelEvents; set a new priority instead
     public void setPriority(Priority priority) {
         if (priority == null) {
             throw new NullArgumentException("Illegal argument: priority is null");
         }
+        Priority oldPriority = this.priority;
         this.priority = priority;
+        if (!priority.equals(oldPriority)) {
+            changed(ModelEvent.Field.PRIORITY, oldPriority);
+        }
     }
 
     // EFFECTS: returns the status of this task
@@ -102,7 +157,11 @@ public class Task extends Todo {
         if (status == null) {
             throw new NullArgumentException("Illegal argument: status is null");
         }
+        Status oldStatus = this.status;
         this.status = status;
+        if (status != oldStatus) {
+            changed(ModelEvent.Field.STATUS, oldStatus);
+        }
     }
 
     // EFFECTS: returns the description of this task
@@ -127,7 +186,12 @@ public class Task extends Todo {
         if (progress < 0 || progress > 100) {
             throw new InvalidProgressException();
         }
+        int oldProgress = this.progress;
         this.progress = progress;
+        notifyParents(oldProgress, etcHours);
+        if (progress != oldProgress) {
+            changed(ModelEvent.Field.PROGRESS, oldProgress);
+        }
     }
 
     // MODIFIES: this
@@ -137,7 +201,12 @@ public class Task extends Todo {
         if (hours < 0) {
             throw new NegativeInputException();
         } else {
+            int oldEtcHours = this.etcHours;
             this.etcHours = hours;
+            notifyParents(progress, oldEtcHours);
+            if (hours != oldEtcHours) {
+                changed(ModelEvent.Field.ESTIMATED_TIME_TO_COMPLETE, oldEtcHours);
+            }
         }
 
     }
@@ -146,13 +215,33 @@ public class Task extends Todo {
     // MODIFIES: this
     // EFFECTS:  sets the description of this task
     //     parses the description to extract meta-data (i.e., tags, status, priority and deadline).
+    //     the changes are reported to ModelEvents in one batch
     //  throws EmptyStringException if description is null or empty
     public void setDescription(String description) {
         if (description == null || description.length() == 0) {
             throw new EmptyStringException("setDescription is called with no description");
         }
+        if (!constructed) {
+            applyDescription(description);
+            return;
+        }
+        ModelEvents.beginBatch();
+        try {
+            applyDescription(description);
+        } finally {
+            ModelEvents.endBatch();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the description of this task and the meta-data parsed from it, reporting the changes
+    private void applyDescription(String description) {
+        String oldDescription = this.description;
         this.description = description;
         parseDescription(description);
+        if (!this.description.equals(oldDescription)) {
+            changed(ModelEvent.Field.DESCRIPTION, oldDescription);
+        }
     }
 
     // EFFECTS: returns the due date of this task
@@ -163,17 +252,27 @@ public class Task extends Todo {
     // MODIFIES: this
     // EFFECTS: sets the due date of this task
     public void setDueDate(DueDate dueDate) {
+        DueDate oldDueDate = this.dueDate;
         this.dueDate = dueDate;
+        if (!Objects.equals(dueDate, oldDueDate)) {
+            changed(ModelEvent.Field.DUE_DATE, oldDueDate);
+        }
     }
 
     // EFFECTS: returns true if task contains a tag with tagName,
     //     returns false otherwise
     //  throws EmptyStringException if tagName is empty or null
     public boolean containsTag(String tagName) {
+        checkTagName(tagName);
+        Tag tag = TagRegistry.lookup(tagName);
+        return tag != null && containsTag(tag);
+    }
+
+    // EFFECTS: throws EmptyStringException if tagName is empty or null
+    private void checkTagName(String tagName) {
         if (tagName == null || tagName.length() == 0) {
             throw new EmptyStringException("Tag name cannot be empty or null");
         }
-        return containsTag(new Tag(tagName));
     }
 
     // EFFECTS: returns true if task contains this tag,
@@ -186,17 +285,42 @@ public class Task extends Todo {
         return tags.contains(tag);
     }
 
+    // MODIFIES: this, tags of this task and of tags
+    // EFFECTS: sets every field of this task from a captured TaskState (see TaskState.restore())
+    //     without parsing description; projects containing this task are updated
+    void restore(String description, Status status, Priority priority, DueDate dueDate,
+                 int progress, int etcHours, Collection<Tag> tags) {
+        for (Tag t : new ArrayList<>(this.tags)) {
+            if (!tags.contains(t)) {
+                removeTag(t);
+            }
+        }
+        for (Tag t : tags) {
+            addTag(t);
+        }
+        int oldProgress = this.progress;
+        int oldEtcHours = this.etcHours;
+        this.description = description;
+        this.status = status;
+        this.priority = priority;
+        this.dueDate = dueDate;
+        this.progress = progress;
+        this.etcHours = etcHours;
+        notifyParents(oldProgress, oldEtcHours);
+    }
+
+    // EFFECTS: reports to ModelEvents that field changed from oldValue, unless this task is still being constructed
+    private void changed(ModelEvent.Field field, Object oldValue) {
+        if (constructed) {
+            ModelEvents.fieldChanged(this, field, oldValue);
+        }
+    }
+
     // REQUIRES: description is non-empty
     // MODIFIES: this
     // EFFECTS: parses the description to extract meta-data (i.e., tags, status, priority and deadline).
     private void parseDescription(String description) {
-        Parser parser = new TagParser();
-        try {
-            parser.parse(description, this);
-            this.description = parser.getDescription();
-        } catch (ParsingException e) {
-            this.description = description;
-        }
+        this.description = MetadataParser.parse(description, this);
     }
 
     //EFFECTS: returns a string representation of this task in the following format
@@ -237,6 +361,8 @@ public class Task extends Todo {
         return output.toString();
     }
 
+    // EFFECTS: returns true if o is a task with the same id as this task; the id never changes,
+    //     so a task keeps its place in hash-based sets and maps while it is edited
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -245,18 +371,12 @@ public class Task extends Todo {
         if (!(o instanceof Task)) {
             return false;
         }
-        Task task = (Task) o;
-        return Objects.equals(description, task.description)
-                //&& Objects.equals(tags, task.tags)
-                && Objects.equals(dueDate, task.dueDate)
-                && Objects.equals(priority, task.priority)
-                && status == task.status;
+        return getId() == ((Task) o).getId();
     }
 
     @Override
     public int hashCode() {
-        // return Objects.hash(description, tags, dueDate, priority, status);
-        return Objects.hash(description, dueDate, priority, status);
+        return Long.hashCode(getId());
     }
 
 }
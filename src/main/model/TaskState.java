@@ -0,0 +1,54 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+// A copy of everything about a task that its setters can change, used to undo those changes
+public class TaskState {
+    private Task task;
+    private String description;
+    private Status status;
+    private Priority priority;
+    private DueDate dueDate;
+    private int progress;
+    private int etcHours;
+    private List<Tag> tags;
+
+    // EFFECTS: captures the current state of task
+    public TaskState(Task task) {
+        this.task = task;
+        description = task.getDescription();
+        status = task.getStatus();
+        priority = copy(task.getPriority());
+        dueDate = copy(task.getDueDate());
+        progress = task.getProgress();
+        etcHours = task.getEstimatedTimeToComplete();
+        tags = new ArrayList<>(task.getTags());
+    }
+
+    // EFFECTS: returns the task this state was captured from
+    public Task getTask() {
+        return task;
+    }
+
+    // MODIFIES: the task this state was captured from
+    // EFFECTS: puts the task back in the captured state, without parsing its description again
+    public void restore() {
+        task.restore(description, status, copy(priority), copy(dueDate), progress, etcHours, tags);
+    }
+
+    private static Priority copy(Priority priority) {
+        Priority copy = new Priority(4);
+        copy.setImportant(priority.isImportant());
+        copy.setUrgent(priority.isUrgent());
+        return copy;
+    }
+
+    private static DueDate copy(DueDate dueDate) {
+        if (dueDate == Task.NO_DUE_DATE) {
+            return Task.NO_DUE_DATE;
+        }
+        return new DueDate(new Date(dueDate.getDate().getTime()));
+    }
+}
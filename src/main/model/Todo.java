@@ -2,27 +2,64 @@ package model;
 
 import model.exceptions.EmptyStringException;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 public abstract class Todo {
+    private static final AtomicLong nextId = new AtomicLong(0);
+
+    private final long id;          // stable identity; never changes, unlike description, status, ...
     protected String description;
     protected int progress;
     protected int etcHours;  // Estimated Time To Complete
     protected Priority priority;
+    private Set<Project> parents;   // projects that directly contain this todo
 
     // MODIFIES: this
     // EFFECTS: sets the "description" using the given description
     //          sets "progress" and "estimated time to complete" to zero
+    //          assigns a new id that no other todo has
     // throws EmptyStringException if description is null or empty
     public Todo(String description) {
+        this(nextId.getAndIncrement(), description);
+    }
+
+    // REQUIRES: no other todo has the given id (e.g., id was read back from a saved todo)
+    // MODIFIES: this
+    // EFFECTS: same as Todo(description), but uses the given id;
+    //          todos created afterwards get ids greater than id
+    // throws EmptyStringException if description is null or empty
+    protected Todo(long id, String description) {
         if (description == null || description.length() == 0) {
             throw new EmptyStringException("Should have a non null non empty description");
         }
+        this.id = id;
+        reserveIds(id);
         this.description = description;
         progress = 0;
         etcHours = 0;
         priority = new Priority(4);
+        parents = Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    // EFFECTS: returns an id that no todo has, and that todos created from now on will not get
+    //     (e.g., for a saved todo that has none)
+    public static long newId() {
+        return nextId.getAndIncrement();
+    }
+
+    // EFFECTS: makes sure that todos created from now on get ids greater than maxId
+    //     (e.g., because todos with ids up to maxId are saved but not loaded yet)
+    public static void reserveIds(long maxId) {
+        nextId.accumulateAndGet(maxId + 1, Math::max);
+    }
 
+    // EFFECTS: returns the id of this todo
+    public long getId() {
+        return id;
     }
 
     // EFFECTS: returns the description
@@ -38,4 +75,28 @@ public abstract class Todo {
     // EFFECTS: returns an integer between 0 and 100 which represents
     //     the percentage of completion (rounded down to the closest integer).
     public abstract int getProgress();
+
+    // MODIFIES: this
+    // EFFECTS: records that project directly contains this todo
+    void addParent(Project project) {
+        parents.add(project);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that project no longer contains this todo
+    void removeParent(Project project) {
+        parents.remove(project);
+    }
+
+    // MODIFIES: every project that contains this todo (directly or indirectly)
+    // EFFECTS: lets the projects containing this todo update their progress and
+    //     estimated time to complete, given the values this todo had before it changed
+    protected void notifyParents(int oldProgress, int oldEtcHours) {
+        if (oldProgress == getProgress() && oldEtcHours == getEstimatedTimeToComplete()) {
+            return;
+        }
+        for (Project p : parents) {
+            p.childChanged(oldProgress, getProgress(), oldEtcHours, getEstimatedTimeToComplete());
+        }
+    }
 }
@@ -0,0 +1,53 @@
+package model;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// A set of todos keyed by their ids, so membership does not depend on equals/hashCode
+// and survives changes to the description, status, priority, etc. of its elements.
+// Iteration order is insertion order.
+public class TodoIdSet<T extends Todo> extends AbstractSet<T> {
+    private Map<Long, T> todos;
+
+    // EFFECTS: constructs an empty set
+    public TodoIdSet() {
+        todos = new LinkedHashMap<>();
+    }
+
+    // EFFECTS: returns the element with the given id, or null if there is none
+    public T get(long id) {
+        return todos.get(id);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds todo if no element has its id; returns true if todo was added
+    @Override
+    public boolean add(T todo) {
+        return todos.putIfAbsent(todo.getId(), todo) == null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the element with the id of o; returns true if an element was removed
+    @Override
+    public boolean remove(Object o) {
+        return o instanceof Todo && todos.remove(((Todo) o).getId()) != null;
+    }
+
+    // EFFECTS: returns true if an element has the id of o
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Todo && todos.containsKey(((Todo) o).getId());
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return todos.values().iterator();
+    }
+
+    @Override
+    public int size() {
+        return todos.size();
+    }
+}
@@ -0,0 +1,160 @@
+package parsers;
+
+import model.DueDate;
+import model.Priority;
+import model.Status;
+import model.Task;
+
+import java.util.Arrays;
+
+// Parses the meta-data of a task description. The text after "##" (up to the next "##", if any)
+// is a list of entries separated by ';', e.g. "Buy milk ## today; important; groceries".
+// Entries are trimmed and compared ignoring case; empty and repeated entries are ignored.
+// "important" and "urgent" set the priority, the first of "today" and "tomorrow" sets the due date,
+// the first of "to do", "up next", "in progress" and "done" sets the status, and every other entry
+// is added to the task as a tag. Same rules as TagParser.
+// The parser keeps no state: each call scans the description once, without regular expressions,
+// and only builds strings for the description and the tags, so every task shares it and
+// parallel loaders may call it from several threads at once.
+public class MetadataParser {
+    public static final String DELIMITER = "##";
+    private static final char SEPARATOR = ';';
+
+    // MODIFIES: task
+    // EFFECTS: applies the meta-data in description to task and returns the text of description
+    //     before "##"; if description has no "##", returns description and leaves task unchanged
+    public static String parse(String description, Task task) {
+        int delimiter = description.indexOf(DELIMITER);
+        if (delimiter < 0) {
+            return description;
+        }
+        int from = delimiter + DELIMITER.length();
+        int to = description.indexOf(DELIMITER, from);
+        if (to < 0) {
+            to = description.length();
+        }
+        Entries entries = new Entries(description);
+        addEntries(description, from, to, entries, task);
+        entries.applyPriority(task);
+        return description.substring(0, delimiter);
+    }
+
+    // MODIFIES: entries, task
+    // EFFECTS: adds each entry of the list description[from, to) to entries, applying it to task
+    private static void addEntries(String description, int from, int to, Entries entries, Task task) {
+        int start = from;
+        while (start <= to) {
+            int end = description.indexOf(SEPARATOR, start);
+            if (end < 0 || end > to) {
+                end = to;
+            }
+            entries.add(start, end, task);
+            start = end + 1;
+        }
+    }
+
+    // The entries of one description seen so far, kept as offsets into the description
+    private static class Entries {
+        private final String text;
+        private int[] bounds = new int[16];     // start and end of each distinct entry
+        private int count = 0;
+        private boolean important = false;
+        private boolean urgent = false;
+        private boolean dueDateSet = false;
+        private boolean statusSet = false;
+
+        Entries(String text) {
+            this.text = text;
+        }
+
+        // MODIFIES: this, task
+        // EFFECTS: trims the entry text[start, end) and, unless it is empty or repeated,
+        //     applies it to task (priorities are collected and applied by applyPriority)
+        void add(int start, int end, Task task) {
+            while (start < end && text.charAt(start) <= ' ') {
+                start++;
+            }
+            while (end > start && text.charAt(end - 1) <= ' ') {
+                end--;
+            }
+            if (start == end || isRepeated(start, end)) {
+                return;
+            }
+            if (count * 2 == bounds.length) {
+                bounds = Arrays.copyOf(bounds, bounds.length * 2);
+            }
+            bounds[count * 2] = start;
+            bounds[count * 2 + 1] = end;
+            count++;
+            apply(start, end, task);
+        }
+
+        // MODIFIES: this, task
+        private void apply(int start, int end, Task task) {
+            if (is(start, end, "important")) {
+                important = true;
+            } else if (is(start, end, "urgent")) {
+                urgent = true;
+            } else if (!dueDateSet && is(start, end, "today")) {
+                task.setDueDate(new DueDate());
+                dueDateSet = true;
+            } else if (!dueDateSet && is(start, end, "tomorrow")) {
+                DueDate dueDate = new DueDate();
+                dueDate.postponeOneDay();
+                task.setDueDate(dueDate);
+                dueDateSet = true;
+            } else if (!statusSet && applyStatus(start, end, task)) {
+                statusSet = true;
+            } else {
+                task.addTag(text.substring(start, end));
+            }
+        }
+
+        // MODIFIES: task
+        // EFFECTS: sets the status of task if text[start, end) names one; returns true if it did
+        private boolean applyStatus(int start, int end, Task task) {
+            Status status;
+            if (is(start, end, "to do")) {
+                status = Status.TODO;
+            } else if (is(start, end, "up next")) {
+                status = Status.UP_NEXT;
+            } else if (is(start, end, "in progress")) {
+                status = Status.IN_PROGRESS;
+            } else if (is(start, end, "done")) {
+                status = Status.DONE;
+            } else {
+                return false;
+            }
+            task.setStatus(status);
+            return true;
+        }
+
+        // MODIFIES: task
+        // EFFECTS: makes task important and/or urgent if an entry said so
+        void applyPriority(Task task) {
+            if (important || urgent) {
+                Priority priority = new Priority(4);
+                priority.setImportant(important || task.getPriority().isImportant());
+                priority.setUrgent(urgent || task.getPriority().isUrgent());
+                task.setPriority(priority);
+            }
+        }
+
+        // EFFECTS: returns true if text[start, end) is keyword, ignoring case
+        private boolean is(int start, int end, String keyword) {
+            return end - start == keyword.length() && text.regionMatches(true, start, keyword, 0, keyword.length());
+        }
+
+        // EFFECTS: returns true if text[start, end) equals an earlier entry, ignoring case
+        private boolean isRepeated(int start, int end) {
+            for (int i = 0; i < count; i++) {
+                int otherStart = bounds[i * 2];
+                int length = bounds[i * 2 + 1] - otherStart;
+                if (length == end - start && text.regionMatches(true, start, text, otherStart, length)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -4,13 +4,24 @@ import model.*;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
+import org.json.JSONTokener;
+import utility.Logger;
 
+import java.io.Reader;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Deque;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 // Represents Task parser
 public class TaskParser {
+    // parseParallel builds tasks in chunks of at most this many records
+    public static final int CHUNK_SIZE = 256;
 
     // EFFECTS: iterates over every JSONObject in the JSONArray represented by the input
     // string and parses it as a task; each parsed task is added to the list of tasks.
@@ -23,16 +34,7 @@ public class TaskParser {
 
         for (Object object : taskArray) {
             try {
-                JSONObject taskJson = (JSONObject) object;
-                List<Tag> tags = jsonToListOfTags((JSONArray) taskJson.get("tags"));
-                Task task = new Task(taskJson.getString("description"));
-                task.setStatus(Status.valueOf((String) taskJson.get("status")));
-                task.setDueDate(determineDueDate(taskJson));
-                task.setPriority(jsonToPriority((JSONObject) taskJson.get("priority")));
-                for (Tag t : tags) {
-                    task.addTag(t);
-                }
-                listOfTasks.add(task);
+                listOfTasks.add(parseTask((JSONObject) object));
             } catch (Exception e) {
                 //
             }
@@ -41,6 +43,132 @@ public class TaskParser {
         return listOfTasks;
     }
 
+    // EFFECTS: reads a JSONArray from reader one element at a time and parses each element
+    // as a task, as parse(String) does; only the element being parsed is held in memory,
+    // rather than the whole array.
+    //   throws JSONException if reader does not contain a well-formed JSONArray
+    public List<Task> parse(Reader reader) {
+        List<Task> listOfTasks = new ArrayList<>();
+        JSONTokener tokener = new JSONTokener(reader);
+        if (!startOfArray(tokener)) {
+            return listOfTasks;
+        }
+        while (true) {
+            Object object = tokener.nextValue();
+            try {
+                listOfTasks.add(parseTask((JSONObject) object));
+            } catch (Exception e) {
+                //
+            }
+            if (endOfArray(tokener)) {
+                return listOfTasks;
+            }
+        }
+    }
+
+    // EFFECTS: reads a JSONArray from reader and parses its elements as parse(Reader) does,
+    // but builds the tasks in parallel on the common fork-join pool; the tasks are returned in the order
+    // of the array. The JSON text is read sequentially, CHUNK_SIZE records at a time, and each chunk is
+    // built while the next ones are read; only a few chunks are held in memory at once, not the whole array.
+    //   throws JSONException if reader does not contain a well-formed JSONArray
+    public List<Task> parseParallel(Reader reader) {
+        return parseParallel(reader, ForkJoinPool.commonPool());
+    }
+
+    // EFFECTS: as parseParallel(reader), building the tasks on pool, at most two chunks per thread
+    // of pool at a time; the records that cannot be parsed are logged
+    public List<Task> parseParallel(Reader reader, ForkJoinPool pool) {
+        List<Task> listOfTasks = new ArrayList<>();
+        Deque<ForkJoinTask<List<Task>>> building = new ArrayDeque<>();
+        Queue<RuntimeException> errors = new ConcurrentLinkedQueue<>();
+        JSONTokener tokener = new JSONTokener(reader);
+        boolean more = startOfArray(tokener);
+        while (more) {
+            List<Object> chunk = new ArrayList<>(CHUNK_SIZE);
+            more = readChunk(tokener, chunk);
+            building.add(pool.submit(() -> buildChunk(chunk, errors)));
+            if (building.size() >= 2 * pool.getParallelism()) {
+                listOfTasks.addAll(building.remove().join());
+            }
+        }
+        while (!building.isEmpty()) {
+            listOfTasks.addAll(building.remove().join());
+        }
+        logSkipped(errors);
+        return listOfTasks;
+    }
+
+    // EFFECTS: logs how many records could not be parsed, and why the first could not, if there are any
+    private static void logSkipped(Queue<RuntimeException> errors) {
+        if (!errors.isEmpty()) {
+            Logger.log("TaskParser", "Skipped " + errors.size() + " malformed tasks, the first because of: "
+                    + errors.peek());
+        }
+    }
+
+    // REQUIRES: tokener is inside a JSONArray, before an element
+    // MODIFIES: chunk
+    // EFFECTS: reads up to CHUNK_SIZE elements of the JSONArray into chunk; returns true if more follow
+    //   throws JSONException if the text is not a well-formed JSONArray
+    private static boolean readChunk(JSONTokener tokener, List<Object> chunk) {
+        do {
+            chunk.add(tokener.nextValue());
+            if (endOfArray(tokener)) {
+                return false;
+            }
+        } while (chunk.size() < CHUNK_SIZE);
+        return true;
+    }
+
+    // EFFECTS: returns the tasks built from records, in order, leaving out the records that cannot be
+    // parsed and adding the reason to errors
+    private List<Task> buildChunk(List<Object> records, Queue<RuntimeException> errors) {
+        List<Task> tasks = new ArrayList<>(records.size());
+        for (Object record : records) {
+            try {
+                tasks.add(parseTask((JSONObject) record));
+            } catch (RuntimeException e) {
+                errors.add(e);
+            }
+        }
+        return tasks;
+    }
+
+    // EFFECTS: reads the start of a JSONArray; returns true if an element follows, false if the array is empty
+    //   throws JSONException if the text does not start with '['
+    private static boolean startOfArray(JSONTokener tokener) {
+        if (tokener.nextClean() != '[') {
+            throw tokener.syntaxError("A JSONArray text must start with '['");
+        }
+        if (tokener.nextClean() == ']') {
+            return false;
+        }
+        tokener.back();
+        return true;
+    }
+
+    // EFFECTS: reads the separator after an element of a JSONArray; returns true if it ends the array
+    //   throws JSONException if it is neither ',' nor ']'
+    private static boolean endOfArray(JSONTokener tokener) {
+        char c = tokener.nextClean();
+        if (c == ']') {
+            return true;
+        } else if (c != ',') {
+            throw tokener.syntaxError("Expected a ',' or ']'");
+        }
+        return false;
+    }
+
+    // EFFECTS: returns the task represented by taskJson, with its id if taskJson has one
+    //     (files saved before tasks had ids have none; such tasks get a fresh id);
+    //     nothing is reported to ModelEvents, so tasks can be parsed on any thread
+    //     throws JSONException (or another RuntimeException) if taskJson is malformed
+    public Task parseTask(JSONObject taskJson) {
+        List<Tag> tags = jsonToListOfTags((JSONArray) taskJson.get("tags"));
+        long id = taskJson.has("id") ? taskJson.getLong("id") : Todo.newId();
+        return new Task(id, taskJson.getString("description"), Status.valueOf((String) taskJson.get("status")),
+                jsonToPriority((JSONObject) taskJson.get("priority")), determineDueDate(taskJson), tags);
+    }
 
     private DueDate determineDueDate(JSONObject obj) {
         if (!obj.get("due-date").equals(null)) {
@@ -85,7 +213,7 @@ public class TaskParser {
         List<Tag> listOfTags = new ArrayList<>();
         for (Object object : j) {
             JSONObject tag = (JSONObject) object;
-            listOfTags.add(new Tag((String) tag.get("name")));
+            listOfTags.add(TagRegistry.intern((String) tag.get("name")));
         }
         return listOfTags;
     }
@@ -0,0 +1,366 @@
+package persistence;
+
+import model.DueDate;
+import model.Priority;
+import model.Status;
+import model.TagRegistry;
+import model.Tag;
+import model.Task;
+import utility.JsonFileIO;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.IntFunction;
+
+// Compact, versioned binary snapshot of a list of tasks; holds the same data as the JSON
+// written by Jsonifier, so the two formats can be converted into each other.
+//
+// Layout (all numbers big-endian):
+//   header:               int MAGIC, short VERSION, long largest task id (-1 if there are no tasks)
+//   records:              per task: long id, int description, byte flags, int due date,
+//                         short number of tags, int tag name per tag (19 bytes + 4 per tag)
+//   string table:         per string: int length in bytes, UTF-8 bytes
+//   string offset table:  per string: long offset of the string
+//   record offset table:  per task: long offset of its record
+//   trailer:              int number of tasks, int number of strings, long string offset table offset,
+//                         long record offset table offset, int MAGIC
+// Descriptions and tag names are stored once in the string table and referred to by index.
+// flags packs the status (bits 0-1, its ordinal), important (bit 2), urgent (bit 3) and
+// whether there is a due date (bit 4); the due date is stored in minutes since the epoch.
+//
+// Snapshots are memory-mapped (see MappedTaskList), and a mapped file cannot be replaced or deleted
+// on every platform (e.g., Windows). So a snapshot kept in file is written as a series of generations:
+// file itself is generation 0 and file.N is generation N. Each write creates the next generation,
+// keeps the one before as a backup and deletes the older ones; one that is still mapped is deleted
+// by a later write, once it is no longer mapped.
+public class BinarySnapshot {
+    public static final int MAGIC = 0x50544f44;     // "PTOD"
+    public static final short VERSION = 2;
+    public static final String EXTENSION = ".bin";
+    static final int HEADER_SIZE = 14;
+    static final int TRAILER_SIZE = 28;
+    private static final int IMPORTANT = 1 << 2;
+    private static final int URGENT = 1 << 3;
+    private static final int HAS_DUE_DATE = 1 << 4;
+    private static final int STATUS_MASK = 3;
+    private static final long MILLIS_PER_MINUTE = 60 * 1000;
+
+    // EFFECTS: writes tasks as the next generation of the snapshot kept in file, atomically
+    //     (see JsonFileIO.writeAtomically); the generation before is kept as a backup and older ones
+    //     are deleted, unless they are still mapped. No existing file is written to or replaced, so
+    //     a MappedTaskList keeps seeing the content of the generation it mapped.
+    public static void write(List<Task> tasks, File file) throws IOException {
+        NavigableMap<Long, File> generations = generationsOf(file);
+        long next = generations.isEmpty() ? 0 : generations.firstKey() + 1;
+        JsonFileIO.writeAtomically(new File(next == 0 ? file.getPath() : file.getPath() + "." + next),
+                out -> write(tasks, out));
+        for (File old : generations.tailMap(next - 1, false).values()) {
+            // fails where the platform does not delete mapped files; the next write tries again
+            if (old.delete()) {
+                Files.deleteIfExists(JsonFileIO.backupOf(old).toPath());
+            }
+        }
+    }
+
+    // EFFECTS: returns the generations of the snapshot kept in file that exist, newest first
+    public static List<File> generations(File file) {
+        return new ArrayList<>(generationsOf(file).values());
+    }
+
+    // EFFECTS: returns the newest generation of the snapshot kept in file, or file if it has none
+    public static File current(File file) {
+        NavigableMap<Long, File> generations = generationsOf(file);
+        return generations.isEmpty() ? file : generations.firstEntry().getValue();
+    }
+
+    // EFFECTS: returns the generations of the snapshot kept in file that exist by number, newest first
+    private static NavigableMap<Long, File> generationsOf(File file) {
+        NavigableMap<Long, File> generations = new TreeMap<>(Collections.reverseOrder());
+        String prefix = file.getName() + ".";
+        String[] names = file.getAbsoluteFile().getParentFile().list();
+        for (String name : names == null ? new String[0] : names) {
+            String suffix = name.substring(Math.min(prefix.length(), name.length()));
+            if (name.startsWith(prefix) && suffix.matches("[0-9]{1,18}")) {
+                generations.put(Long.parseLong(suffix), new File(file.getPath() + "." + suffix));
+            }
+        }
+        if (file.exists()) {
+            generations.put(0L, file);
+        }
+        return generations;
+    }
+
+    // MODIFIES: stream
+    // EFFECTS: writes tasks to stream in the binary snapshot format
+    public static void write(List<Task> tasks, OutputStream stream) throws IOException {
+        Map<String, Integer> strings = new HashMap<>();
+        List<String> stringTable = new ArrayList<>();
+        long[] offsets = new long[tasks.size()];
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeLong(maxId(tasks));
+        for (int i = 0; i < tasks.size(); i++) {
+            offsets[i] = out.size();
+            writeRecord(tasks, i, out, strings, stringTable);
+        }
+        writeTables(stringTable, offsets, out);
+    }
+
+    // MODIFIES: out, strings, stringTable
+    // EFFECTS: writes the record of the task at index in tasks to out; a record of a MappedTaskList
+    //     whose task was not built is copied without building it
+    private static void writeRecord(List<Task> tasks, int index, DataOutputStream out,
+                                    Map<String, Integer> strings, List<String> stringTable) throws IOException {
+        if (tasks instanceof MappedTaskList && !((MappedTaskList) tasks).isMaterialized(index)) {
+            MappedTaskList mapped = (MappedTaskList) tasks;
+            copyRecord(mapped.buffer(), mapped.recordOffset(index), mapped::string, out, strings, stringTable);
+        } else {
+            writeRecord(tasks.get(index), out, strings, stringTable);
+        }
+    }
+
+    // EFFECTS: returns the largest id of tasks, or -1 if tasks is empty; no task of a MappedTaskList is built
+    private static long maxId(List<Task> tasks) {
+        long maxId = -1;
+        for (int i = 0; i < tasks.size(); i++) {
+            long id = tasks instanceof MappedTaskList ? ((MappedTaskList) tasks).getId(i) : tasks.get(i).getId();
+            maxId = Math.max(maxId, id);
+        }
+        return maxId;
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes the string table, the string and record offset tables and the trailer to out
+    private static void writeTables(List<String> stringTable, long[] offsets, DataOutputStream out)
+            throws IOException {
+        long[] stringOffsets = new long[stringTable.size()];
+        for (int i = 0; i < stringOffsets.length; i++) {
+            byte[] bytes = stringTable.get(i).getBytes(StandardCharsets.UTF_8);
+            stringOffsets[i] = out.size();
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+        long stringOffsetTableOffset = out.size();
+        for (long offset : stringOffsets) {
+            out.writeLong(offset);
+        }
+        long offsetTableOffset = out.size();
+        for (long offset : offsets) {
+            out.writeLong(offset);
+        }
+        out.writeInt(offsets.length);
+        out.writeInt(stringTable.size());
+        out.writeLong(stringOffsetTableOffset);
+        out.writeLong(offsetTableOffset);
+        out.writeInt(MAGIC);
+        out.flush();
+    }
+
+    // EFFECTS: returns the tasks stored in the newest generation of file (see current),
+    //     in the order they were written
+    //   throws IOException if file cannot be read or is not a binary snapshot of a known version
+    public static List<Task> read(File file) throws IOException {
+        ByteBuffer buffer = load(current(file));
+        int taskCount = checkFormat(buffer);
+        String[] strings = new String[stringCount(buffer)];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = readString(buffer, stringOffset(buffer, i));
+        }
+        List<Task> tasks = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            tasks.add(readRecord(buffer, recordOffset(buffer, i), index -> strings[index]));
+        }
+        return tasks;
+    }
+
+    // EFFECTS: maps file into memory, read only; the file is closed on return, and the mapping stays
+    //     valid until the buffer is garbage collected
+    static ByteBuffer load(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath())) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    // EFFECTS: returns true if the newest generation of file (see current) starts like a binary snapshot
+    public static boolean isBinarySnapshot(File file) {
+        try (FileChannel channel = FileChannel.open(current(file).toPath())) {
+            ByteBuffer header = ByteBuffer.allocate(4);
+            return channel.read(header) == 4 && header.getInt(0) == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // EFFECTS: converts the JSON task file json (in the schema written by Jsonifier)
+    //     into the binary snapshot file binary; the tasks parsed to do so leave the tag index afterwards
+    public static void importJson(File json, File binary) throws IOException {
+        List<Task> tasks = JsonFileIO.parseJson(json);
+        try {
+            write(tasks, binary);
+        } finally {
+            for (Task t : tasks) {
+                for (Tag tag : new ArrayList<>(t.getTags())) {
+                    tag.removeTask(t);
+                }
+            }
+        }
+    }
+
+    // EFFECTS: converts the binary snapshot file binary into the JSON task file json
+    //     (in the schema written by Jsonifier)
+    public static void exportJson(File binary, File json) throws IOException {
+        List<Task> tasks = read(binary);
+        JsonFileIO.writeAtomically(json, out -> {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            Jsonifier.writeTaskList(tasks, writer);
+            writer.flush();
+        });
+    }
+
+    // REQUIRES: buffer holds a whole snapshot file
+    // EFFECTS: returns the number of tasks in the snapshot in buffer
+    //   throws IOException if buffer does not hold a binary snapshot of a known version
+    static int checkFormat(ByteBuffer buffer) throws IOException {
+        int size = buffer.limit();
+        if (size < HEADER_SIZE + TRAILER_SIZE
+                || buffer.getInt(0) != MAGIC || buffer.getInt(size - 4) != MAGIC) {
+            throw new IOException("Not a task snapshot");
+        }
+        if (buffer.getShort(4) != VERSION) {
+            throw new IOException("Unsupported task snapshot version " + buffer.getShort(4));
+        }
+        return buffer.getInt(size - TRAILER_SIZE);
+    }
+
+    // REQUIRES: checkFormat(buffer) succeeds
+    // EFFECTS: returns the largest id of the tasks in the snapshot in buffer, or -1 if it has no tasks
+    static long maxId(ByteBuffer buffer) {
+        return buffer.getLong(6);
+    }
+
+    // REQUIRES: checkFormat(buffer) succeeds
+    // EFFECTS: returns the number of strings in the string table of the snapshot in buffer
+    static int stringCount(ByteBuffer buffer) {
+        return buffer.getInt(buffer.limit() - TRAILER_SIZE + 4);
+    }
+
+    // REQUIRES: checkFormat(buffer) succeeds
+    // EFFECTS: returns the offset of the string at index in the string table of the snapshot in buffer
+    static int stringOffset(ByteBuffer buffer, int index) {
+        long offsetTable = buffer.getLong(buffer.limit() - TRAILER_SIZE + 8);
+        return (int) buffer.getLong((int) (offsetTable + 8L * index));
+    }
+
+    // EFFECTS: returns the string stored at offset in buffer
+    static String readString(ByteBuffer buffer, int offset) {
+        byte[] bytes = new byte[buffer.getInt(offset)];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(offset + 4 + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // REQUIRES: checkFormat(buffer) succeeds
+    // EFFECTS: returns the offset of the record of the task at index in the snapshot in buffer
+    static int recordOffset(ByteBuffer buffer, int index) {
+        int size = buffer.limit();
+        long offsetTable = buffer.getLong(size - TRAILER_SIZE + 16);
+        return (int) buffer.getLong((int) (offsetTable + 8L * index));
+    }
+
+    // EFFECTS: returns the id of the task whose record starts at offset in buffer
+    static long recordId(ByteBuffer buffer, int offset) {
+        return buffer.getLong(offset);
+    }
+
+    // EFFECTS: returns the task whose record starts at offset in buffer;
+    //     strings maps string table indices to strings
+    //     Only absolute reads are used, so buffer may be shared between threads; the task is built
+    //     without reporting anything to ModelEvents.
+    static Task readRecord(ByteBuffer buffer, int offset, IntFunction<String> strings) {
+        int flags = buffer.get(offset + 12);
+        int dueMinutes = buffer.getInt(offset + 13);
+        Priority priority = new Priority(4);
+        priority.setImportant((flags & IMPORTANT) != 0);
+        priority.setUrgent((flags & URGENT) != 0);
+        DueDate dueDate = (flags & HAS_DUE_DATE) != 0
+                ? new DueDate(new Date(dueMinutes * MILLIS_PER_MINUTE)) : Task.NO_DUE_DATE;
+        int tagCount = buffer.getShort(offset + 17);
+        List<Tag> tags = new ArrayList<>(tagCount);
+        for (int i = 0; i < tagCount; i++) {
+            tags.add(TagRegistry.intern(strings.apply(buffer.getInt(offset + 19 + 4 * i))));
+        }
+        return new Task(buffer.getLong(offset), strings.apply(buffer.getInt(offset + 8)),
+                Status.values()[flags & STATUS_MASK], priority, dueDate, tags);
+    }
+
+    // MODIFIES: out, strings, stringTable
+    // EFFECTS: writes a copy of the record that starts at offset in src to out, without building
+    //     a task; srcStrings maps string table indices of src to strings
+    private static void copyRecord(ByteBuffer src, int offset, IntFunction<String> srcStrings, DataOutputStream out,
+                                   Map<String, Integer> strings, List<String> stringTable) throws IOException {
+        out.writeLong(src.getLong(offset));
+        out.writeInt(stringIndex(srcStrings.apply(src.getInt(offset + 8)), strings, stringTable));
+        out.writeByte(src.get(offset + 12));
+        out.writeInt(src.getInt(offset + 13));
+        int tagCount = src.getShort(offset + 17);
+        out.writeShort(tagCount);
+        for (int i = 0; i < tagCount; i++) {
+            out.writeInt(stringIndex(srcStrings.apply(src.getInt(offset + 19 + 4 * i)), strings, stringTable));
+        }
+    }
+
+    // MODIFIES: out, strings, stringTable
+    // EFFECTS: writes the record of task to out, adding its strings to the string table
+    private static void writeRecord(Task task, DataOutputStream out,
+                                    Map<String, Integer> strings, List<String> stringTable) throws IOException {
+        out.writeLong(task.getId());
+        out.writeInt(stringIndex(task.getDescription(), strings, stringTable));
+        int flags = task.getStatus().ordinal();
+        if (task.getPriority().isImportant()) {
+            flags |= IMPORTANT;
+        }
+        if (task.getPriority().isUrgent()) {
+            flags |= URGENT;
+        }
+        DueDate dueDate = task.getDueDate();
+        if (dueDate != null) {
+            flags |= HAS_DUE_DATE;
+        }
+        out.writeByte(flags);
+        out.writeInt(dueDate == null ? 0 : (int) Math.floorDiv(dueDate.getDate().getTime(), MILLIS_PER_MINUTE));
+        out.writeShort(task.getTags().size());
+        for (Tag t : task.getTags()) {
+            out.writeInt(stringIndex(t.getName(), strings, stringTable));
+        }
+    }
+
+    // MODIFIES: strings, stringTable
+    // EFFECTS: returns the index of s in the string table, adding it if it is not there yet
+    private static int stringIndex(String s, Map<String, Integer> strings, List<String> stringTable) {
+        Integer index = strings.get(s);
+        if (index == null) {
+            index = stringTable.size();
+            strings.put(s, index);
+            stringTable.add(s);
+        }
+        return index;
+    }
+}
@@ -8,8 +8,11 @@ import model.Task;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.time.Year;
 import java.util.Calendar;
+import java.util.Collection;
 import java.util.List;
 
 // Converts model elements to JSON objects
@@ -55,6 +58,7 @@ public class Jsonifier {
             tagsJson.put(tagToJson(t));
         }
 
+        taskJson.put("id", task.getId());
         taskJson.put("description", task.getDescription());
         taskJson.put("tags", tagsJson);
 
@@ -78,4 +82,82 @@ public class Jsonifier {
 
         return listOfTaskJson;
     }
+
+    // MODIFIES: writer
+    // EFFECTS: writes the JSON array representing list of tasks to writer, one task at a time,
+    //     without building JSONObjects; the output has the same schema as taskListToJson
+    public static void writeTaskList(List<Task> tasks, Writer writer) throws IOException {
+        Calendar c = Calendar.getInstance();
+        writer.write('[');
+        boolean first = true;
+        for (Task t : tasks) {
+            if (!first) {
+                writer.write(',');
+            }
+            first = false;
+            writeTask(t, writer, c);
+        }
+        writer.write(']');
+    }
+
+    // MODIFIES: writer
+    // EFFECTS: writes the JSON representation of task to writer; same schema as taskToJson
+    public static void writeTask(Task task, Writer writer) throws IOException {
+        writeTask(task, writer, Calendar.getInstance());
+    }
+
+    // MODIFIES: writer, c
+    // EFFECTS: writes the JSON representation of task to writer, using c to split its due date
+    private static void writeTask(Task task, Writer writer, Calendar c) throws IOException {
+        writer.write("{\"id\":");
+        writer.write(Long.toString(task.getId()));
+        writer.write(",\"description\":");
+        JSONObject.quote(task.getDescription(), writer);
+        writer.write(",\"tags\":");
+        writeTags(task.getTags(), writer);
+        writer.write(",\"due-date\":");
+        writeDueDate(task.getDueDate(), writer, c);
+        writer.write(",\"priority\":{\"important\":");
+        writer.write(Boolean.toString(task.getPriority().isImportant()));
+        writer.write(",\"urgent\":");
+        writer.write(Boolean.toString(task.getPriority().isUrgent()));
+        writer.write("},\"status\":");
+        JSONObject.quote(task.getStatus().name(), writer);
+        writer.write('}');
+    }
+
+    // MODIFIES: writer
+    // EFFECTS: writes the JSON array of tags to writer; each tag as tagToJson does
+    private static void writeTags(Collection<Tag> tags, Writer writer) throws IOException {
+        writer.write('[');
+        boolean first = true;
+        for (Tag t : tags) {
+            writer.write(first ? "{\"name\":" : ",{\"name\":");
+            JSONObject.quote(t.getName(), writer);
+            writer.write('}');
+            first = false;
+        }
+        writer.write(']');
+    }
+
+    // MODIFIES: writer, c
+    // EFFECTS: writes the JSON representation of dueDate (null if there is no due date) to writer
+    private static void writeDueDate(DueDate dueDate, Writer writer, Calendar c) throws IOException {
+        if (dueDate == null) {
+            writer.write("null");
+            return;
+        }
+        c.setTime(dueDate.getDate());
+        writer.write("{\"year\":");
+        writer.write(Integer.toString(c.get(Calendar.YEAR)));
+        writer.write(",\"month\":");
+        writer.write(Integer.toString(c.get(Calendar.MONTH)));
+        writer.write(",\"day\":");
+        writer.write(Integer.toString(c.get(Calendar.DAY_OF_MONTH)));
+        writer.write(",\"hour\":");
+        writer.write(Integer.toString(c.get(Calendar.HOUR_OF_DAY)));
+        writer.write(",\"minute\":");
+        writer.write(Integer.toString(c.get(Calendar.MINUTE)));
+        writer.write('}');
+    }
 }
@@ -0,0 +1,210 @@
+package persistence;
+
+import model.Task;
+import model.Todo;
+import model.exceptions.NullArgumentException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// A list of tasks backed by a memory-mapped binary snapshot (see BinarySnapshot).
+// Opening only reads the header and the trailer of the snapshot, so it takes the same time however
+// many tasks there are; a Task is built the first time its position is read, and kept from then on,
+// so the heap only holds the tasks in use. Tasks added or set afterwards are held in memory like in
+// any list. A list and its copies share the tasks built from the snapshot, so each record is built
+// into exactly one Task, even when copies are read from several threads at once.
+// The mapped file is never written to or replaced: BinarySnapshot.write writes a new generation.
+// Note: a task joins the tag index (TagRegistry) when it is built.
+public class MappedTaskList extends AbstractList<Task> implements RandomAccess {
+    private static final int IN_MEMORY = -1;
+
+    private final ByteBuffer buffer;        // read with absolute gets only
+    private final String[] strings;         // decoded on first use
+    private final AtomicReferenceArray<Task> built;     // task built from each record, or null
+    private int[] records;                  // record at each position, or IN_MEMORY (see detach)
+    private Task[] cache;                   // task held in memory at each position, or null (see detach)
+    private int size;
+
+    private MappedTaskList(ByteBuffer buffer, String[] strings, AtomicReferenceArray<Task> built,
+                           int[] records, Task[] cache, int size) {
+        this.buffer = buffer;
+        this.strings = strings;
+        this.built = built;
+        this.records = records;
+        this.cache = cache;
+        this.size = size;
+    }
+
+    // EFFECTS: maps the latest generation of file (see BinarySnapshot.current) into memory and
+    //     returns the list of tasks it holds, without reading or building them
+    //   throws IOException if file cannot be read or is not a binary snapshot of a known version
+    public static MappedTaskList open(File file) throws IOException {
+        ByteBuffer buffer = BinarySnapshot.load(BinarySnapshot.current(file));
+        int size = BinarySnapshot.checkFormat(buffer);
+        Todo.reserveIds(BinarySnapshot.maxId(buffer));
+        return new MappedTaskList(buffer, new String[BinarySnapshot.stringCount(buffer)],
+                new AtomicReferenceArray<>(size), null, null, size);
+    }
+
+    // EFFECTS: returns the task at index, building it from the snapshot if needed
+    @Override
+    public Task get(int index) {
+        checkIndex(index, size);
+        Task task = cached(index);
+        return task != null ? task : build(record(index));
+    }
+
+    // EFFECTS: returns the task built from the given record, building it if no list sharing
+    //     the snapshot has done so yet
+    private Task build(int record) {
+        Task task = built.get(record);
+        if (task == null) {
+            synchronized (built) {
+                task = built.get(record);
+                if (task == null) {
+                    task = BinarySnapshot.readRecord(buffer, BinarySnapshot.recordOffset(buffer, record),
+                            this::string);
+                    built.set(record, task);
+                }
+            }
+        }
+        return task;
+    }
+
+    // EFFECTS: returns the id of the task at index, without building the task
+    public long getId(int index) {
+        checkIndex(index, size);
+        Task task = cached(index);
+        return task != null ? task.getId() : BinarySnapshot.recordId(buffer, recordOffset(index));
+    }
+
+    // EFFECTS: returns true if the task at index has been built (or was put there after opening)
+    public boolean isMaterialized(int index) {
+        checkIndex(index, size);
+        return cached(index) != null || built.get(record(index)) != null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: replaces the task at index with task; returns the task that was there
+    //   throws NullArgumentException if task is null
+    @Override
+    public Task set(int index, Task task) {
+        checkNotNull(task);
+        Task old = get(index);
+        detach();
+        cache[index] = task;
+        records[index] = IN_MEMORY;
+        return old;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: inserts task at index
+    //   throws NullArgumentException if task is null
+    @Override
+    public void add(int index, Task task) {
+        checkNotNull(task);
+        checkIndex(index, size + 1);
+        detach();
+        if (size == cache.length) {
+            int capacity = Math.max(10, size + size / 2);
+            cache = Arrays.copyOf(cache, capacity);
+            records = Arrays.copyOf(records, capacity);
+        }
+        System.arraycopy(cache, index, cache, index + 1, size - index);
+        System.arraycopy(records, index, records, index + 1, size - index);
+        cache[index] = task;
+        records[index] = IN_MEMORY;
+        size++;
+        modCount++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the task at index and returns it
+    @Override
+    public Task remove(int index) {
+        Task old = get(index);
+        detach();
+        System.arraycopy(cache, index + 1, cache, index, size - index - 1);
+        System.arraycopy(records, index + 1, records, index, size - index - 1);
+        size--;
+        cache[size] = null;
+        modCount++;
+        return old;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: creates the tables of records and tasks held in memory by position, unless they exist;
+    //     until the first change creates them, position i holds record i, so that opening a snapshot
+    //     does not take time in its size
+    private void detach() {
+        if (records == null) {
+            records = new int[size];
+            for (int i = 0; i < size; i++) {
+                records[i] = i;
+            }
+            cache = new Task[size];
+        }
+    }
+
+    // EFFECTS: returns the record at index, or IN_MEMORY
+    private int record(int index) {
+        return records == null ? index : records[index];
+    }
+
+    // EFFECTS: returns the task held in memory at index, or null
+    private Task cached(int index) {
+        return cache == null ? null : cache[index];
+    }
+
+    // EFFECTS: returns a copy of this list that shares the snapshot and the tasks built from it;
+    //     copying builds no task, so the copy can be written out (see BinarySnapshot.write)
+    //     or read from another thread
+    public MappedTaskList copy() {
+        return new MappedTaskList(buffer.duplicate(), strings, built,
+                records == null ? null : Arrays.copyOf(records, size),
+                cache == null ? null : Arrays.copyOf(cache, size), size);
+    }
+
+    // EFFECTS: returns the snapshot this list reads from
+    ByteBuffer buffer() {
+        return buffer;
+    }
+
+    // REQUIRES: !isMaterialized(index)
+    // EFFECTS: returns the offset of the record of the task at index
+    int recordOffset(int index) {
+        return BinarySnapshot.recordOffset(buffer, record(index));
+    }
+
+    // EFFECTS: returns the string at index in the string table of the snapshot
+    String string(int index) {
+        String s = strings[index];
+        if (s == null) {
+            s = BinarySnapshot.readString(buffer, BinarySnapshot.stringOffset(buffer, index));
+            strings[index] = s;
+        }
+        return s;
+    }
+
+    private static void checkIndex(int index, int bound) {
+        if (index < 0 || index >= bound) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + bound);
+        }
+    }
+
+    private static void checkNotNull(Task task) {
+        if (task == null) {
+            throw new NullArgumentException("Illegal argument: task is null");
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package ui;
 
+import controller.AddTaskController;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.layout.StackPane;
 import model.Task;
@@ -7,11 +8,12 @@ import model.Task;
 import java.io.File;
 import java.io.IOException;
 
-// Add task view
+// Add task view; loaded once and cleared each time a new task is added (see clear)
 public class AddTask extends StackPane {
     private static final String FXML = "resources/fxml/AddTask.fxml";
     private File fxmlFile = new File(FXML);
     private Task task;
+    private AddTaskController controller;
     
     public AddTask() {
         load();
@@ -22,9 +24,16 @@ public class AddTask extends StackPane {
             FXMLLoader fxmlLoader = new FXMLLoader(fxmlFile.toURI().toURL());
             fxmlLoader.setRoot(this);
             fxmlLoader.load();
+            controller = fxmlLoader.<AddTaskController>getController();
         } catch (IOException exception) {
             throw new RuntimeException(exception);
         }
     }
+
+    // MODIFIES: this
+    // EFFECTS: clears what was typed into this view the last time it was shown
+    public void clear() {
+        controller.clear();
+    }
 }
 
@@ -8,11 +8,12 @@ import model.Task;
 import java.io.File;
 import java.io.IOException;
 
-// Edit task UI
+// Edit task UI; loaded once and shown again for each task that is edited (see setTask)
 public class EditTask extends StackPane {
     private static final String FXML = "resources/fxml/EditTask.fxml";
     private File fxmlFile = new File(FXML);
     private Task task;
+    private EditTaskController controller;
     
     public EditTask(Task task) {
         this.task = task;
@@ -24,10 +25,18 @@ public class EditTask extends StackPane {
             FXMLLoader fxmlLoader = new FXMLLoader(fxmlFile.toURI().toURL());
             fxmlLoader.setRoot(this);
             fxmlLoader.load();
-            EditTaskController controller = fxmlLoader.<EditTaskController>getController();
+            controller = fxmlLoader.<EditTaskController>getController();
             controller.setTask(task);
         } catch (IOException exception) {
             throw new RuntimeException(exception);
         }
     }
+
+    // REQUIRES: task != null
+    // MODIFIES: this
+    // EFFECTS: shows task in this UI instead of the task shown so far
+    public void setTask(Task task) {
+        this.task = task;
+        controller.setTask(task);
+    }
 }
\ No newline at end of file
@@ -3,32 +3,47 @@ package ui;
 import controller.ListViewController;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.layout.StackPane;
-import model.Task;
+import utility.TaskIndex;
+import utility.TaskRepository;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.List;
 
-// List View: Tasks are listed (in no particular order)
+// List View: Tasks are listed in no particular order, or grouped by priority or by status
 public class ListView extends StackPane {
     private static final String FXML = "resources/fxml/ListView.fxml";
     private File fxmlFile = new File(FXML);
-    private List<Task> tasks;
+    private TaskRepository tasks;
+    private TaskIndex index;
+    private ListViewController controller;
     
-    // REQUIRES: task != null
+    // REQUIRES: task != null AND index indexes tasks
     // MODIFIES: this
-    public ListView(List<Task> tasks) {
+    public ListView(TaskRepository tasks, TaskIndex index) {
         this.tasks = tasks;
+        this.index = index;
         this.load();
     }
+
+    // MODIFIES: this
+    // EFFECTS: lists the tasks in the given view (list, priority or status)
+    public void setView(ListViewController.View view) {
+        controller.setView(view);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops following the tasks and the index; to be called once this UI is no longer used
+    public void close() {
+        controller.close();
+    }
     
     private void load() {
         try {
             FXMLLoader fxmlLoader = new FXMLLoader(fxmlFile.toURI().toURL());
             fxmlLoader.setRoot(this);
             fxmlLoader.load();
-            ListViewController controller = fxmlLoader.<ListViewController>getController();
-            controller.setData(tasks);
+            controller = fxmlLoader.<ListViewController>getController();
+            controller.setData(tasks, index);
         } catch (IOException exception) {
             throw new RuntimeException(exception);
         }
@@ -6,17 +6,23 @@ import javafx.scene.Scene;
 import javafx.stage.Stage;
 import model.Task;
 import utility.JsonFileIO;
+import utility.SearchIndex;
+import utility.TaskIndex;
+import utility.TaskRepository;
 
-import java.util.ArrayList;
-import java.util.List;
 
 // The PomoTODO GUI Application
 public class PomoTodoApp extends Application {
     public static final String TITLE = "PomoTODO";
     public static final double WIDTH = 520;
     public static final double HEIGHT = 800;
-    private static List<Task> tasks = JsonFileIO.read();
+    private static TaskRepository tasks = JsonFileIO.readRepository();
     private static Stage primaryStage;
+    private static TaskIndex index;
+    private static SearchIndex searchIndex;
+    private static ListView listView;
+    private static EditTask editTask;
+    private static AddTask addTask;
 
     public static void main(String[] args) {
         launch(args);
@@ -34,17 +40,84 @@ public class PomoTodoApp extends Application {
         primaryStage = stage;
     }
 
-    // EFFECTS: returns the list of tasks in this PomoTODO APP
-    public static List<Task> getTasks() {
+    // EFFECTS: returns the tasks in this PomoTODO APP
+    //          tasks added to or removed from it show up in the list view UI straight away
+    public static TaskRepository getTasks() {
         return tasks;
     }
 
+    // MODIFIES: this
+    // EFFECTS: returns the index over the tasks in this PomoTODO APP, created on first use
+    public static TaskIndex getTaskIndex() {
+        if (index == null) {
+            index = new TaskIndex(tasks);
+        }
+        return index;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the full-text index over the descriptions of the tasks in this PomoTODO APP,
+    //          read from where it was saved on first use
+    public static SearchIndex getSearchIndex() {
+        if (searchIndex == null) {
+            searchIndex = JsonFileIO.readSearchIndex(tasks);
+        }
+        return searchIndex;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the list view UI, created once and kept for the life of the application
+    public static ListView getListView() {
+        if (listView == null) {
+            // the index is created first, so it is up to date by the time the list view hears of a change
+            TaskIndex index = getTaskIndex();
+            listView = new ListView(tasks, index);
+        }
+        return listView;
+    }
+
+    // REQUIRES: primaryStage != null
+    // EFFECTS: shows the list view UI
+    public static void showListView() {
+        setScene(getListView());
+    }
+
+    // REQUIRES: primaryStage != null AND task != null
+    // MODIFIES: this
+    // EFFECTS: shows the edit task UI for task; the UI is loaded on first use and then reused
+    public static void showEditTask(Task task) {
+        if (editTask == null) {
+            editTask = new EditTask(task);
+        } else {
+            editTask.setTask(task);
+        }
+        setScene(editTask);
+    }
+
+    // REQUIRES: primaryStage != null
+    // MODIFIES: this
+    // EFFECTS: shows the add task UI, cleared; the UI is loaded on first use and then reused
+    public static void showAddTask() {
+        if (addTask == null) {
+            addTask = new AddTask();
+        } else {
+            addTask.clear();
+        }
+        setScene(addTask);
+    }
+
     // REQUIRES: primaryStage != null AND root != null
+    // EFFECTS: shows root in the primary stage, reusing the stage's scene once there is one
     public static void setScene(Parent root) {
         try {
-            Scene scene = new Scene(root, WIDTH, HEIGHT);
+            Scene scene = primaryStage.getScene();
+            if (scene == null) {
+                scene = new Scene(root, WIDTH, HEIGHT);
+                primaryStage.setScene(scene);
+            } else {
+                scene.setRoot(root);
+            }
             primaryStage.setTitle(TITLE);
-            primaryStage.setScene(scene);
             primaryStage.show();
         } catch (Exception e) {
             System.out.println("Failed to load new Scene!");
@@ -55,6 +128,19 @@ public class PomoTodoApp extends Application {
     @Override
     public void start(Stage primaryStage) throws Exception {
         setPrimaryStage(primaryStage);
-        setScene(new ListView(tasks));
+        showListView();
+    }
+
+    // EFFECTS: closes the list view UI, then saves every change still waiting in the save queue,
+    //          and the search index if it was used, before the application exits
+    @Override
+    public void stop() {
+        if (listView != null) {
+            listView.close();
+        }
+        JsonFileIO.flush().join();
+        if (searchIndex != null) {
+            JsonFileIO.writeSearchIndex(searchIndex);
+        }
     }
 }
@@ -13,6 +13,7 @@ public class Todobar extends VBox {
     private static final String FXML = "resources/fxml/Todobar.fxml";
     private File fxmlFile = new File(FXML);
     private Task task;
+    private TodobarController controller;
     
     public Todobar(Task task) {
         this.task = task;
@@ -24,10 +25,18 @@ public class Todobar extends VBox {
             FXMLLoader fxmlLoader = new FXMLLoader(fxmlFile.toURI().toURL());
             fxmlLoader.setRoot(this);
             fxmlLoader.load();
-            TodobarController controller = fxmlLoader.<TodobarController>getController();
+            controller = fxmlLoader.<TodobarController>getController();
             controller.setTask(task);
         } catch (IOException exception) {
             throw new RuntimeException(exception);
         }
     }
+    
+    // REQUIRES: task != null
+    // MODIFIES: this
+    // EFFECTS: rebinds this Todobar to task, reusing the loaded UI
+    public void setTask(Task task) {
+        this.task = task;
+        controller.setTask(task);
+    }
 }
@@ -0,0 +1,33 @@
+package ui;
+
+import javafx.scene.control.ListCell;
+import model.Task;
+
+// A list cell that shows its task in a Todobar
+// The Todobar is loaded once per cell and rebound as the cell is recycled on scroll
+public class TodobarCell extends ListCell<Task> {
+    private Todobar todobar;
+    
+    @Override
+    protected void updateItem(Task task, boolean empty) {
+        super.updateItem(task, empty);
+        if (empty || task == null) {
+            setGraphic(null);
+        } else {
+            if (todobar == null) {
+                todobar = new Todobar(task);
+            } else {
+                todobar.setTask(task);
+            }
+            setGraphic(todobar);
+        }
+    }
+    
+    // MODIFIES: this
+    // EFFECTS: redraws this cell from its current task
+    public void refresh() {
+        if (todobar != null && getItem() != null) {
+            todobar.setTask(getItem());
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package utility;
+
+import model.Task;
+import model.TodoIdSet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+// Tasks sorted by due time, for range scans that take O(log n + k) for k tasks found:
+// the tasks due before a time (e.g., overdue) and the tasks due in a time range.
+// Tasks due at the same time are kept in the order they were added.
+// Not safe to use from several threads at once; TaskIndex guards it with its own lock.
+class DueDateIndex {
+    private NavigableMap<Long, TodoIdSet<Task>> tasksByDue = new TreeMap<>();   // due time in ms to tasks
+    private int size;
+
+    // MODIFIES: this
+    // EFFECTS: adds task as due at the given time, in milliseconds since the epoch
+    void add(Task task, long due) {
+        if (tasksByDue.computeIfAbsent(due, time -> new TodoIdSet<>()).add(task)) {
+            size++;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes task (or the task with its id) from the tasks due at the given time, if it is there
+    void remove(Task task, long due) {
+        TodoIdSet<Task> tasks = tasksByDue.get(due);
+        if (tasks != null && tasks.remove(task)) {
+            size--;
+            if (tasks.isEmpty()) {
+                tasksByDue.remove(due);
+            }
+        }
+    }
+
+    // EFFECTS: returns the tasks due before time, earliest first
+    List<Task> before(long time) {
+        return collect(tasksByDue.headMap(time, false));
+    }
+
+    // EFFECTS: returns the tasks due at or after from and before to, earliest first
+    List<Task> between(long from, long to) {
+        if (from >= to) {
+            return new ArrayList<>();
+        }
+        return collect(tasksByDue.subMap(from, true, to, false));
+    }
+
+    // EFFECTS: returns the number of tasks due at or after from and before to, or limit if there are
+    //     more; takes O(log n + limit) at most, however many tasks are in the range
+    int countBetween(long from, long to, int limit) {
+        if (from >= to) {
+            return 0;
+        }
+        int count = 0;
+        for (TodoIdSet<Task> due : tasksByDue.subMap(from, true, to, false).values()) {
+            if (count >= limit) {
+                return limit;
+            }
+            count += due.size();
+        }
+        return Math.min(count, limit);
+    }
+
+    // EFFECTS: returns the number of tasks with a due time
+    int size() {
+        return size;
+    }
+
+    // EFFECTS: returns the tasks in range, in order
+    private static List<Task> collect(NavigableMap<Long, TodoIdSet<Task>> range) {
+        List<Task> tasks = new ArrayList<>();
+        for (TodoIdSet<Task> due : range.values()) {
+            tasks.addAll(due);
+        }
+        return tasks;
+    }
+}
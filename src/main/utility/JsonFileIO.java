@@ -1,51 +1,357 @@
 package utility;
 
 import model.Task;
-import org.json.JSONArray;
-import org.json.JSONObject;
+import org.json.JSONException;
 import parsers.TaskParser;
+import persistence.BinarySnapshot;
 import persistence.Jsonifier;
+import persistence.MappedTaskList;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.text.ParseException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
 
 // File input/output operations
 public class JsonFileIO {
-    public static final File jsonDataFile = new File("./resources/json/tasks.json");
+    // the directory the tasks are kept in, unless another one is set (see setDataDirectory)
+    public static final File DEFAULT_DATA_DIRECTORY = new File("./resources/json");
+    // names of the files kept in the data directory (see dataFile)
+    public static final String JSON_DATA_FILE = "tasks.json";
+    public static final String BINARY_DATA_FILE = "tasks" + BinarySnapshot.EXTENSION;
+    public static final String JOURNAL_FILE = "tasks.journal";
+    public static final String SEARCH_INDEX_FILE = "tasks.search";
+    // where JSON_DATA_FILE is moved once it has been converted to BINARY_DATA_FILE
+    public static final String IMPORTED_JSON_FILE = "tasks.json.imported";
+    // JSON files at least this long have their tasks built in parallel (see TaskParser.parseParallel)
+    public static final long PARALLEL_PARSE_MIN_BYTES = 1 << 20;
+    private static File dataDirectory = DEFAULT_DATA_DIRECTORY;
+    // the binary snapshot replaces JSON_DATA_FILE once it has been created; JSON_DATA_FILE is converted
+    // to it when the tasks are first read, and then moved out of the way (see readRepository)
+    private static File snapshotFile;
+    // set up when first used, for the tasks in dataDirectory (see journal)
+    private static TaskJournal journal;
+    private static SaveQueue saveQueue;
+    private static boolean flushOnExit;
 
+    // REQUIRES: no task read from the current data directory is changed any more
+    // MODIFIES: this
+    // EFFECTS: keeps the tasks in directory from now on; the changes queued so far are saved first,
+    //           to the directory they were queued for
+    public static synchronized void setDataDirectory(File directory) {
+        if (saveQueue != null) {
+            saveQueue.flush().join();
+        }
+        dataDirectory = directory;
+        snapshotFile = null;
+        journal = null;
+        saveQueue = null;
+    }
 
-    // EFFECTS: attempts to read jsonDataFile and parse it
-    //           returns a list of tasks from the content of jsonDataFile
+    // EFFECTS: returns the file with the given name (e.g., JOURNAL_FILE) in the data directory
+    public static synchronized File dataFile(String name) {
+        return new File(dataDirectory, name);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the journal of the tasks in the data directory, setting it and its save queue
+    //           up if this is the first use since the data directory was set; the queued changes are
+    //           saved when the JVM shuts down, e.g., on System.exit or Ctrl-C
+    private static synchronized TaskJournal journal() {
+        if (journal == null) {
+            File binary = dataFile(BINARY_DATA_FILE);
+            File json = dataFile(JSON_DATA_FILE);
+            snapshotFile = !BinarySnapshot.generations(binary).isEmpty() || !json.exists() ? binary : json;
+            journal = new TaskJournal(snapshotFile, dataFile(JOURNAL_FILE));
+            saveQueue = new SaveQueue(journal, SaveQueue.DEFAULT_DELAY_MILLIS);
+        }
+        if (!flushOnExit) {
+            flushOnExit = true;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> flush().join(), "save-queue-flush"));
+        }
+        return journal;
+    }
+
+    // EFFECTS: attempts to read the snapshot (BINARY_DATA_FILE if it exists, JSON_DATA_FILE otherwise)
+    //           and parse it, then replays the changes recorded in JOURNAL_FILE since
+    //           the snapshot was last written
+    //           returns a list of tasks from the content of the snapshot and JOURNAL_FILE
     public static List<Task> read() {
-        String content = null;
-        TaskParser parser = new TaskParser();
-        List<Task> output;
+        return journal().load();
+    }
+
+    // EFFECTS: reads the tasks as read() does into a new repository, whose snapshots the journal
+    //           compacts from then on; the repository is safe to change from any thread
+    //           the JSON snapshot is first converted to a binary snapshot, whose tasks are only built
+    //           when they are first read (see MappedTaskList), and JSON_DATA_FILE is renamed to
+    //           IMPORTED_JSON_FILE, since it is not written any more
+    public static synchronized TaskRepository readRepository() {
+        convertToBinarySnapshot();
+        TaskRepository repository = new TaskRepository(read());
+        journal().track(repository::rawSnapshot);
+        return repository;
+    }
+
+    // EFFECTS: returns a full-text index of the descriptions of the tasks of repository, reusing
+    //           the index saved in SEARCH_INDEX_FILE for the tasks whose description did not change,
+    //           unless the tasks were saved again after the index was (see savedTasksStamp)
+    public static SearchIndex readSearchIndex(TaskRepository repository) {
+        return SearchIndex.load(repository, dataFile(SEARCH_INDEX_FILE), savedTasksStamp());
+    }
+
+    // REQUIRES: every change to the tasks of index is saved (see flush)
+    // EFFECTS: saves index to SEARCH_INDEX_FILE, so that it does not have to be rebuilt next time
+    public static void writeSearchIndex(SearchIndex index) {
         try {
-            content = new Scanner(jsonDataFile).useDelimiter("\\Z").next();
-        } catch (Exception e) {
+            index.save(dataFile(SEARCH_INDEX_FILE), savedTasksStamp());
+        } catch (IOException e) {
             e.printStackTrace();
         }
-        output = parser.parse(content);
-        return output;
     }
 
-    // EFFECTS: saves the tasks to jsonDataFile
-    public static void write(List<Task> tasks) {
-        JSONArray jsonTasks = Jsonifier.taskListToJson(tasks);
-        String jsonString = jsonTasks.toString();
+    // EFFECTS: returns a stamp of the saved tasks, which changes whenever the journal or the snapshot
+    //           is written: it is made of the length and the time of last change of JOURNAL_FILE, and
+    //           the name and the time of last change of the current generation of BINARY_DATA_FILE
+    private static long savedTasksStamp() {
+        File journalFile = dataFile(JOURNAL_FILE);
+        File snapshot = BinarySnapshot.current(dataFile(BINARY_DATA_FILE));
+        long stamp = journalFile.length();
+        stamp = 31 * stamp + journalFile.lastModified();
+        stamp = 31 * stamp + snapshot.getName().hashCode();
+        return 31 * stamp + snapshot.lastModified();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: converts JSON_DATA_FILE to BINARY_DATA_FILE if the snapshot is still kept as JSON, then
+    //           retires JSON_DATA_FILE (see retireJsonDataFile); if the conversion fails, the tasks
+    //           are still kept in JSON_DATA_FILE
+    private static void convertToBinarySnapshot() {
+        TaskJournal journal = journal();
+        if (snapshotFile.getName().equals(JSON_DATA_FILE)) {
+            try {
+                journal.convertSnapshot(dataFile(BINARY_DATA_FILE));
+                snapshotFile = dataFile(BINARY_DATA_FILE);
+            } catch (IOException e) {
+                e.printStackTrace();
+                return;
+            }
+        }
+        retireJsonDataFile();
+    }
+
+    // EFFECTS: renames JSON_DATA_FILE to IMPORTED_JSON_FILE, if it is there, so that it is not mistaken
+    //           for the saved tasks: those are kept in BINARY_DATA_FILE and JOURNAL_FILE once converted
+    //           (JSON_DATA_FILE may still be there if the application stopped right after converting it)
+    private static void retireJsonDataFile() {
+        File json = dataFile(JSON_DATA_FILE);
+        if (!json.exists()) {
+            return;
+        }
+        File imported = dataFile(IMPORTED_JSON_FILE);
         try {
-            FileWriter file = new FileWriter(jsonDataFile);
-            file.write(jsonString);
-            file.close();
+            Files.move(json.toPath(), imported.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            Logger.log("JsonFileIO", "Tasks are now saved in " + dataFile(BINARY_DATA_FILE) + "; moved "
+                    + json + " to " + imported);
         } catch (IOException e) {
             e.printStackTrace();
         }
+    }
+
+    // EFFECTS: queues recording in the journal that task was added or edited, on a background
+    //           thread (see SaveQueue); returns a future that completes once it is saved
+    public static CompletableFuture<Void> saveTaskLater(Task task) {
+        return getSaveQueue().saveTask(task);
+    }
+
+    // EFFECTS: queues recording in the journal that task was deleted, on a background
+    //           thread (see SaveQueue); returns a future that completes once it is saved
+    public static CompletableFuture<Void> removeTaskLater(Task task) {
+        return getSaveQueue().removeTask(task);
+    }
+
+    // EFFECTS: returns the queue that saveTaskLater and removeTaskLater use
+    static synchronized SaveQueue getSaveQueue() {
+        journal();
+        return saveQueue;
+    }
+
+    // EFFECTS: saves every queued change now; returns a future that completes once they are saved
+    //           to be called before the application exits
+    public static CompletableFuture<Void> flush() {
+        SaveQueue queue;
+        synchronized (JsonFileIO.class) {
+            queue = saveQueue;
+        }
+        return queue == null ? CompletableFuture.completedFuture(null) : queue.flush();
+    }
+
+    // EFFECTS: attempts to read file and parse it, streaming one task at a time
+    //           returns a list of tasks from the content of file
+    //           file is either a binary snapshot, whose tasks are only built when first
+    //           read from the returned list, or a JSON array of tasks
+    //           if file cannot be parsed, its backup is read instead: the generation before for a
+    //           binary snapshot (see BinarySnapshot.write), the file kept by writeAtomically for JSON
+    //           returns an empty list if there is neither
+    static List<Task> readSnapshot(File file) {
+        List<File> files = snapshotFiles(file);
+        for (int i = 0; i < files.size(); i++) {
+            if (i > 0) {
+                Logger.log("JsonFileIO", "Reading backup " + files.get(i));
+            }
+            try {
+                return parseSnapshot(files.get(i));
+            } catch (IOException | JSONException e) {
+                e.printStackTrace();
+            }
+        }
+        return new ArrayList<>();
+    }
+
+    // EFFECTS: returns the existing files the snapshot kept in file can be read from, newest first
+    private static List<File> snapshotFiles(File file) {
+        if (file.getName().endsWith(BinarySnapshot.EXTENSION)) {
+            return BinarySnapshot.generations(file);
+        }
+        List<File> files = new ArrayList<>();
+        for (File f : new File[] {file, backupOf(file)}) {
+            if (f.exists()) {
+                files.add(f);
+            }
+        }
+        return files;
+    }
+
+    // EFFECTS: returns the tasks in file, which is either a binary snapshot or a JSON array of tasks;
+    //           a JSON file is parsed by parseJson
+    //   throws IOException if file cannot be read, JSONException if it is not well-formed JSON
+    private static List<Task> parseSnapshot(File file) throws IOException {
+        if (BinarySnapshot.isBinarySnapshot(file)) {
+            return MappedTaskList.open(file);
+        }
+        return parseJson(file);
+    }
+
+    // EFFECTS: returns the tasks in the JSON array of tasks in file, streamed one chunk at a time;
+    //           a file of at least PARALLEL_PARSE_MIN_BYTES has its tasks built on several cores
+    //           (see TaskParser.parseParallel), a smaller one on this thread
+    //   throws IOException if file cannot be read, JSONException if it is not well-formed JSON
+    public static List<Task> parseJson(File file) throws IOException {
+        TaskParser parser = new TaskParser();
+        try (FileChannel channel = FileChannel.open(file.toPath());
+             Reader reader = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8.name()))) {
+            return file.length() >= PARALLEL_PARSE_MIN_BYTES ? parser.parseParallel(reader) : parser.parse(reader);
+        }
+    }
+
+    // EFFECTS: saves the tasks to file, streaming one task at a time (see writeAtomically)
+    //           file is written as a binary snapshot if its name ends with BinarySnapshot.EXTENSION,
+    //           as JSON otherwise
+    //   throws IOException if the tasks could not be saved; file is left unchanged in that case
+    static void writeSnapshot(List<Task> tasks, File file) throws IOException {
+        if (file.getName().endsWith(BinarySnapshot.EXTENSION)) {
+            BinarySnapshot.write(tasks, file);
+        } else {
+            writeAtomically(file, out -> {
+                Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+                Jsonifier.writeTaskList(tasks, writer);
+                writer.flush();
+            });
+        }
+    }
+
+    // EFFECTS: writes the bytes produced by content to file, such that file holds either its
+    //           previous or its new content in full even if the application or the machine
+    //           crashes: the bytes are written to a temporary file, forced to disk, and the
+    //           temporary file is then renamed to file. The previous content of file is kept
+    //           in backupOf(file).
+    //   throws IOException if the bytes could not be written; file is left unchanged in that case
+    public static void writeAtomically(File file, Content content) throws IOException {
+        writeAtomically(file, content, true);
+    }
+
+    // EFFECTS: same as writeAtomically(file, content), but only keeps the previous content of file
+    //           in backupOf(file) if keepBackup
+    //   throws IOException if the bytes could not be written; file is left unchanged in that case
+    static void writeAtomically(File file, Content content, boolean keepBackup) throws IOException {
+        Path target = file.toPath();
+        Path temp = new File(file.getPath() + ".tmp").toPath();
+        writeDurably(temp, content);
+        if (keepBackup && Files.exists(target)) {
+            keepBackup(target, backupOf(file).toPath());
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        forceDirectory(target.toAbsolutePath().getParent());
+    }
+
+    // EFFECTS: writes the bytes produced by content to temp and forces them to disk
+    //   throws IOException if the bytes could not be written; temp is deleted in that case
+    private static void writeDurably(Path temp, Content content) throws IOException {
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel));
+            content.writeTo(out);
+            out.flush();
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    // EFFECTS: returns the file that holds the previous content of file
+    public static File backupOf(File file) {
+        return new File(file.getPath() + ".bak");
+    }
+
+    // MODIFIES: backup
+    // EFFECTS: makes backup hold the current content of target; a hard link is used where
+    //           supported, so that no data is copied
+    private static void keepBackup(Path target, Path backup) throws IOException {
+        Files.deleteIfExists(backup);
+        try {
+            Files.createLink(backup, target);
+        } catch (IOException | UnsupportedOperationException e) {
+            Files.copy(target, backup, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // EFFECTS: forces the directory entry changes in dir to disk, where the platform allows it
+    private static void forceDirectory(Path dir) {
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // not supported on every platform; the rename itself is still atomic
+        }
+    }
+
+    // Produces the content of a file
+    public interface Content {
+        // EFFECTS: writes the content to out
+        void writeTo(OutputStream out) throws IOException;
+    }
 
+    // EFFECTS: returns the lines of file
+    //   throws IOException if file cannot be read
+    static List<String> readLines(File file) throws IOException {
+        return Files.readAllLines(file.toPath());
     }
 }
@@ -0,0 +1,150 @@
+package utility;
+
+import model.Task;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Saves changes to tasks on a single background writer thread.
+// Changes are not written right away: the first change starts a delay, and every change made
+// before the delay runs out is saved together with it. Several changes to the same task in one
+// such burst are coalesced into a single record, the last one.
+// The record of a change is built when the change is queued, on the thread that made it, so the
+// writer thread never reads tasks that the application may be editing meanwhile.
+// A change that cannot be written is tried again, waiting twice as long each time,
+// up to MAX_ATTEMPTS times in all.
+public class SaveQueue {
+    public static final long DEFAULT_DELAY_MILLIS = 250;
+    public static final int MAX_ATTEMPTS = 5;
+
+    private final TaskJournal journal;
+    private final long delayMillis;
+    private final ScheduledExecutorService writer;
+    private Map<Long, Change> pending;           // latest unsaved change per task id
+    private CompletableFuture<Void> saved;      // completes once the pending changes are saved
+    private boolean scheduled;
+
+    // EFFECTS: constructs a save queue that records changes in journal, delayMillis after
+    //     the first change of each burst
+    public SaveQueue(TaskJournal journal, long delayMillis) {
+        this.journal = journal;
+        this.delayMillis = delayMillis;
+        writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "save-queue");
+            thread.setDaemon(true);
+            return thread;
+        });
+        pending = new LinkedHashMap<>();
+        saved = new CompletableFuture<>();
+        scheduled = false;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: queues saving task, which was added or edited, with its current values; returns
+    //     a future that completes once the change is saved (exceptionally if saving failed)
+    public CompletableFuture<Void> saveTask(Task task) {
+        return enqueue(new Change(task.getId(), TaskJournal.putRecord(task), 1), delayMillis);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: queues saving that task was deleted; returns a future that completes
+    //     once the change is saved (exceptionally if saving failed)
+    public CompletableFuture<Void> removeTask(Task task) {
+        return enqueue(new Change(task.getId(), TaskJournal.removeRecord(task.getId()), 1), delayMillis);
+    }
+
+    // EFFECTS: saves the queued changes now, without waiting for the delay to run out;
+    //     returns a future that completes once every change queued so far is saved
+    public CompletableFuture<Void> flush() {
+        return CompletableFuture.supplyAsync(this::drain, writer).thenCompose(batchSaved -> batchSaved);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes change the latest pending change of its task (keeping the position of the
+    //     task among the pending changes, so new tasks are saved in the order they were added)
+    //     and starts a delay of delay milliseconds, unless one is already running; returns the
+    //     future of the pending changes
+    private synchronized CompletableFuture<Void> enqueue(Change change, long delay) {
+        pending.put(change.id, change);
+        if (!scheduled) {
+            scheduled = true;
+            writer.schedule(this::drain, delay, TimeUnit.MILLISECONDS);
+        }
+        return saved;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the pending changes to the journal; changes that could not be written are
+    //     retried (see retry); returns the future of the changes written, which is completed by then
+    private CompletableFuture<Void> drain() {
+        Map<Long, Change> batch;
+        CompletableFuture<Void> batchSaved;
+        synchronized (this) {
+            batch = pending;
+            batchSaved = saved;
+            pending = new LinkedHashMap<>();
+            saved = new CompletableFuture<>();
+            scheduled = false;
+        }
+        RuntimeException failure = saveAll(batch.values());
+        if (failure == null) {
+            batchSaved.complete(null);
+        } else {
+            batchSaved.completeExceptionally(failure);
+        }
+        return batchSaved;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes changes to the journal, retrying those that could not be written (see retry);
+    //     returns the last failure, or null if every change was written
+    private RuntimeException saveAll(Collection<Change> changes) {
+        RuntimeException failure = null;
+        for (Change c : changes) {
+            try {
+                journal.append(c.record);
+            } catch (RuntimeException e) {
+                failure = e;
+                retry(c, e);
+            }
+        }
+        return failure;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: logs failure and queues change again after a delay that doubles with each attempt,
+    //     unless a newer change of the same task is already queued; gives up on change once
+    //     it has been tried MAX_ATTEMPTS times
+    private synchronized void retry(Change change, RuntimeException failure) {
+        long id = change.id;
+        if (pending.containsKey(id)) {
+            return;
+        }
+        if (change.attempts >= MAX_ATTEMPTS) {
+            Logger.log("SaveQueue", "Gave up saving task " + id + " after " + change.attempts
+                    + " attempts: " + failure);
+            return;
+        }
+        Logger.log("SaveQueue", "Failed to save task " + id + ", trying again: " + failure);
+        enqueue(new Change(id, change.record, change.attempts + 1), delayMillis << change.attempts);
+    }
+
+    // A change to save: the journal record of the task with the given id; attempts counts the
+    // times it has been tried, this one included
+    private static class Change {
+        private final long id;
+        private final String record;
+        private final int attempts;
+
+        Change(long id, String record, int attempts) {
+            this.id = id;
+            this.record = record;
+            this.attempts = attempts;
+        }
+    }
+}
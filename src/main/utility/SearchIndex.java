@@ -0,0 +1,357 @@
+package utility;
+
+import model.ModelEvent;
+import model.ModelEvents;
+import model.ModelListener;
+import model.Task;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+// Full-text index over the descriptions of the tasks of a TaskRepository: an inverted index from
+// each word (token) to the tasks whose description contains it, sorted by token so that the tokens
+// starting with a prefix are next to each other. The index follows the repository and the
+// description changes reported by ModelEvents.
+//
+// A search matches the tasks whose description has, for every word of the query, a token starting
+// with that word. Results are ranked by the sum over the query words of
+//     count of the token in the description * log(1 + number of tasks / number of tasks with the token)
+// for every matching token, doubled if the token is the whole query word; ties are broken by id.
+//
+// The descriptions are only indexed when the index is first read, so creating an index over a binary
+// snapshot (see MappedTaskList) builds no task until then.
+//
+// The index can be saved next to the tasks (see JsonFileIO.SEARCH_INDEX_FILE) so that it does not
+// have to be rebuilt at startup. The index is saved with a stamp of the saved tasks it was built from
+// (see JsonFileIO.readSearchIndex); if the tasks were saved again since, e.g., because the application
+// crashed before the index was saved, the saved index is out of date and is not used. The tokens of
+// each task are saved with its description; on loading, a task whose description changed is tokenized again.
+// Layout (all numbers big-endian):
+//   header:   int MAGIC, short VERSION, long stamp, int number of tasks
+//   per task: long id, string description, int number of tokens, per token: UTF token, int count
+//   where a string is an int length in bytes followed by its UTF-8 bytes
+public class SearchIndex {
+    public static final int MAGIC = 0x50545358;     // "PTSX"
+    public static final short VERSION = 2;
+
+    private TaskRepository repository;
+    private List<Task> unindexed;                               // the tasks until they are indexed, then null
+    private Map<Long, Entry> saved;                             // the saved tokens until then, by id
+    private Map<Long, Entry> entries;                           // indexed tasks by id
+    private NavigableMap<String, Map<Long, Integer>> postings;  // token to count in each task by id
+    private TaskRepository.Listener repositoryListener;
+    private ModelListener modelListener;
+
+    // The tokens of the description of a task, and how often each occurs
+    private static class Entry {
+        private Task task;
+        private String description;     // the description the tokens were read from
+        private String[] tokens;
+        private int[] counts;
+
+        Entry(Task task, String description, String[] tokens, int[] counts) {
+            this.task = task;
+            this.description = description;
+            this.tokens = tokens;
+            this.counts = counts;
+        }
+    }
+
+    // MODIFIES: repository, ModelEvents
+    // EFFECTS: follows the tasks of repository, indexing their descriptions when the index is first read,
+    //     and keeps the index up to date from now on
+    public SearchIndex(TaskRepository repository) {
+        this(repository, Collections.emptyMap());
+    }
+
+    // MODIFIES: repository, ModelEvents
+    // EFFECTS: same as SearchIndex(repository), but takes the tokens of the tasks whose description
+    //     is unchanged from saved instead of tokenizing their descriptions again
+    private SearchIndex(TaskRepository repository, Map<Long, Entry> saved) {
+        this.repository = repository;
+        entries = new HashMap<>();
+        postings = new TreeMap<>();
+        repositoryListener = (r, removed, added) -> tasksChanged(removed, added);
+        modelListener = this::modelChanged;
+        ModelEvents.addListener(modelListener);
+        synchronized (this) {
+            this.saved = saved;
+            unindexed = repository.mirror(repositoryListener);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: indexes the tasks followed so far, unless they are indexed already, taking the tokens
+    //     of the tasks whose description is unchanged from the saved ones
+    private void ensureIndexed() {
+        if (unindexed == null) {
+            return;
+        }
+        for (Task t : unindexed) {
+            Entry entry = saved.get(t.getId());
+            if (entry != null && entry.description.equals(t.getDescription())) {
+                entry.task = t;
+                add(entry);
+            } else {
+                add(t);
+            }
+        }
+        unindexed = null;
+        saved = null;
+    }
+
+    // MODIFIES: repository, ModelEvents
+    // EFFECTS: returns an index of the tasks of repository, reusing the tokens saved in file (see save)
+    //     if they were saved with the given stamp of the tasks; if file is missing, cannot be read
+    //     or was saved with another stamp, every description is tokenized
+    public static SearchIndex load(TaskRepository repository, File file, long stamp) {
+        Map<Long, Entry> saved = Collections.emptyMap();
+        if (file.exists()) {
+            try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+                saved = read(in, stamp);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        return new SearchIndex(repository, saved);
+    }
+
+    // EFFECTS: saves this index to file with the given stamp of the tasks it indexes, replacing file
+    //     atomically (see JsonFileIO.writeAtomically)
+    //   throws IOException if the index could not be saved; file is left unchanged in that case
+    public void save(File file, long stamp) throws IOException {
+        JsonFileIO.writeAtomically(file, out -> write(out, stamp));
+    }
+
+    // MODIFIES: repository, ModelEvents
+    // EFFECTS: stops following the repository and the model; the index is not updated any more
+    public void close() {
+        repository.removeListener(repositoryListener);
+        ModelEvents.removeListener(modelListener);
+    }
+
+    // EFFECTS: returns the tasks whose description has, for every word of query, a word starting
+    //     with it (ignoring case), best match first; returns no tasks if query has no words
+    public synchronized List<Task> search(String query) {
+        ensureIndexed();
+        String[] words = tokenize(query).keySet().toArray(new String[0]);
+        if (words.length == 0) {
+            return new ArrayList<>();
+        }
+        Map<Long, Double> scores = score(words[0]);
+        for (int i = 1; i < words.length && !scores.isEmpty(); i++) {
+            Map<Long, Double> wordScores = score(words[i]);
+            scores.keySet().retainAll(wordScores.keySet());
+            for (Map.Entry<Long, Double> e : scores.entrySet()) {
+                e.setValue(e.getValue() + wordScores.get(e.getKey()));
+            }
+        }
+        return rank(scores);
+    }
+
+    // EFFECTS: returns the tasks with the given scores by id, highest score first, ties broken by id
+    private List<Task> rank(Map<Long, Double> scores) {
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort((a, b) -> {
+            int byScore = Double.compare(b.getValue(), a.getValue());
+            return byScore != 0 ? byScore : Long.compare(a.getKey(), b.getKey());
+        });
+        List<Task> results = new ArrayList<>(ranked.size());
+        for (Map.Entry<Long, Double> e : ranked) {
+            results.add(entries.get(e.getKey()).task);
+        }
+        return results;
+    }
+
+    // EFFECTS: returns the number of indexed tasks
+    public synchronized int size() {
+        return unindexed != null ? unindexed.size() : entries.size();
+    }
+
+    // EFFECTS: returns the score of each task with a token starting with word, by id
+    private Map<Long, Double> score(String word) {
+        Map<Long, Double> scores = new HashMap<>();
+        String end = word + Character.MAX_VALUE;
+        for (Map.Entry<String, Map<Long, Integer>> posting : postings.subMap(word, true, end, false).entrySet()) {
+            Map<Long, Integer> counts = posting.getValue();
+            double weight = Math.log(1 + (double) entries.size() / counts.size());
+            if (posting.getKey().equals(word)) {
+                weight *= 2;
+            }
+            for (Map.Entry<Long, Integer> e : counts.entrySet()) {
+                scores.merge(e.getKey(), weight * e.getValue(), Double::sum);
+            }
+        }
+        return scores;
+    }
+
+    // EFFECTS: returns the words of text, lower-cased, with the number of times each occurs,
+    //     in order of first occurrence; a word is a run of letters and digits
+    static Map<String, Integer> tokenize(String text) {
+        Map<String, Integer> tokens = new LinkedHashMap<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean inWord = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (inWord && start < 0) {
+                start = i;
+            } else if (!inWord && start >= 0) {
+                tokens.merge(text.substring(start, i).toLowerCase(Locale.ROOT), 1, Integer::sum);
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    // MODIFIES: this
+    private synchronized void tasksChanged(Collection<Task> removed, List<Task> added) {
+        if (unindexed != null) {
+            TaskRepository.apply(unindexed, removed, added);
+            return;
+        }
+        for (Task t : removed) {
+            remove(t);
+        }
+        for (Task t : added) {
+            add(t);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: re-indexes the tasks whose description changed in events;
+    //     nothing to do until the tasks are indexed, since their descriptions are read then
+    private synchronized void modelChanged(List<ModelEvent> events) {
+        if (unindexed != null) {
+            return;
+        }
+        for (ModelEvent e : events) {
+            if (e.getKind() == ModelEvent.Kind.FIELD_CHANGED && e.getField() == ModelEvent.Field.DESCRIPTION) {
+                Entry entry = entries.get(e.getTask().getId());
+                if (entry != null && entry.task == e.getTask()) {
+                    remove(entry.task);
+                    add(entry.task);
+                }
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: tokenizes the description of task and indexes it
+    private void add(Task task) {
+        Map<String, Integer> tokens = tokenize(task.getDescription());
+        String[] names = new String[tokens.size()];
+        int[] counts = new int[tokens.size()];
+        int i = 0;
+        for (Map.Entry<String, Integer> e : tokens.entrySet()) {
+            names[i] = e.getKey();
+            counts[i] = e.getValue();
+            i++;
+        }
+        add(new Entry(task, task.getDescription(), names, counts));
+    }
+
+    // MODIFIES: this
+    private void add(Entry entry) {
+        remove(entry.task);
+        long id = entry.task.getId();
+        entries.put(id, entry);
+        for (int i = 0; i < entry.tokens.length; i++) {
+            postings.computeIfAbsent(entry.tokens[i], token -> new HashMap<>()).put(id, entry.counts[i]);
+        }
+    }
+
+    // MODIFIES: this
+    private void remove(Task task) {
+        Entry entry = entries.remove(task.getId());
+        if (entry != null) {
+            for (String token : entry.tokens) {
+                Map<Long, Integer> counts = postings.get(token);
+                counts.remove(task.getId());
+                if (counts.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+        }
+    }
+
+    // MODIFIES: stream
+    // EFFECTS: writes stamp and the tokens of every indexed task to stream; if the index has not been read
+    //     yet, writes the saved tokens it was loaded with, which are checked against the descriptions on loading
+    private synchronized void write(OutputStream stream, long stamp) throws IOException {
+        Map<Long, Entry> written = unindexed != null ? saved : entries;
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeLong(stamp);
+        out.writeInt(written.size());
+        for (Map.Entry<Long, Entry> e : written.entrySet()) {
+            out.writeLong(e.getKey());
+            writeEntry(e.getValue(), out);
+        }
+        out.flush();
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes the description and the tokens of entry to out
+    private static void writeEntry(Entry entry, DataOutputStream out) throws IOException {
+        byte[] description = entry.description.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(description.length);
+        out.write(description);
+        out.writeInt(entry.tokens.length);
+        for (int i = 0; i < entry.tokens.length; i++) {
+            out.writeUTF(entry.tokens[i]);
+            out.writeInt(entry.counts[i]);
+        }
+    }
+
+    // EFFECTS: returns the entries written by write to stream, without their tasks, by id;
+    //     returns no entries if they were written with another stamp than the given one
+    //   throws IOException if stream cannot be read or was not written by write
+    private static Map<Long, Entry> read(InputStream stream, long stamp) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != MAGIC || in.readShort() != VERSION) {
+            throw new IOException("Not a search index of version " + VERSION);
+        }
+        if (in.readLong() != stamp) {
+            Logger.log("SearchIndex", "The saved index is out of date, indexing every task again");
+            return Collections.emptyMap();
+        }
+        int size = in.readInt();
+        Map<Long, Entry> saved = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            long id = in.readLong();
+            saved.put(id, readEntry(in));
+        }
+        return saved;
+    }
+
+    // EFFECTS: returns the entry written by writeEntry to in, without its task
+    //   throws IOException if in cannot be read
+    private static Entry readEntry(DataInputStream in) throws IOException {
+        byte[] description = new byte[in.readInt()];
+        in.readFully(description);
+        String[] tokens = new String[in.readInt()];
+        int[] counts = new int[tokens.length];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = in.readUTF();
+            counts[i] = in.readInt();
+        }
+        return new Entry(null, new String(description, StandardCharsets.UTF_8), tokens, counts);
+    }
+}
@@ -0,0 +1,456 @@
+package utility;
+
+import model.DueDate;
+import model.ModelEvent;
+import model.ModelEvents;
+import model.ModelListener;
+import model.Priority;
+import model.Status;
+import model.Tag;
+import model.TagRegistry;
+import model.Task;
+import model.TodoIdSet;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+// Secondary indexes over the tasks of a TaskRepository, for answering queries (see TaskQuery)
+// without looking at every task: a bucket of tasks per status, a bucket per priority quadrant
+// and the tasks sorted by due date (see DueDateIndex); tags are looked up in the tag index kept by TagRegistry.
+// The indexes follow the repository and the changes reported by ModelEvents, and remember under
+// which keys each task was indexed, so a task is always moved out of the right buckets.
+// The tasks are only indexed when the index is first read, so creating an index over a binary snapshot
+// (see MappedTaskList) builds no task until then.
+// Note: changes made directly to the Priority or DueDate of a task are only seen once the task
+//     reports a change (e.g., setPriority or setDueDate with a new value)
+public class TaskIndex {
+    public static final int QUADRANTS = 4;
+    static final long MILLIS_PER_HOUR = 60 * 60 * 1000;
+
+    private TaskRepository repository;
+    private List<Task> unindexed;                           // the tasks until they are indexed, then null
+    private Map<Long, Entry> entries;                       // indexed tasks by id
+    private TodoIdSet<Task> all;
+    private Map<Status, TodoIdSet<Task>> byStatus;
+    private List<TodoIdSet<Task>> byQuadrant;               // quadrant q at q - 1
+    private DueDateIndex byDueDate;
+    private TaskRepository.Listener repositoryListener;
+    private ModelListener modelListener;
+    private List<QuadrantListener> quadrantListeners = new CopyOnWriteArrayList<>();
+
+    // Receives the moves of tasks between priority quadrants, in the order they are made
+    public interface QuadrantListener {
+        // EFFECTS: handles task leaving quadrant from (0 if it was not indexed) and entering the end
+        //     of quadrant to (0 if it is no longer indexed); called on the thread making the change
+        //     while the index is locked
+        void quadrantChanged(Task task, int from, int to);
+    }
+
+    // The keys a task is indexed under
+    private static class Entry {
+        private Task task;
+        private Status status;
+        private int quadrant;
+        private Long due;       // null if the task has no due date
+
+        Entry(Task task) {
+            this.task = task;
+        }
+    }
+
+    // One restriction of a query: the tasks it accepts and a test of an entry; size is the number of
+    // tasks it accepts (at most), or, for a due date range, that number counted only as far as needed
+    // to tell whether it is smaller than the other restrictions
+    private static class Restriction {
+        private final int size;
+        private final Supplier<Collection<Task>> tasks;
+        private final Predicate<Entry> accepts;
+
+        Restriction(int size, Supplier<Collection<Task>> tasks, Predicate<Entry> accepts) {
+            this.size = size;
+            this.tasks = tasks;
+            this.accepts = accepts;
+        }
+    }
+
+    // MODIFIES: repository, ModelEvents
+    // EFFECTS: follows the tasks of repository, indexing them when the index is first read,
+    //     and keeps the indexes up to date from now on
+    public TaskIndex(TaskRepository repository) {
+        this.repository = repository;
+        createBuckets();
+        repositoryListener = (r, removed, added) -> tasksChanged(removed, added);
+        modelListener = this::modelChanged;
+        ModelEvents.addListener(modelListener);
+        synchronized (this) {
+            unindexed = repository.mirror(repositoryListener);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: creates the empty indexes
+    private void createBuckets() {
+        entries = new HashMap<>();
+        all = new TodoIdSet<>();
+        byStatus = new EnumMap<>(Status.class);
+        for (Status s : Status.values()) {
+            byStatus.put(s, new TodoIdSet<>());
+        }
+        byQuadrant = new ArrayList<>(QUADRANTS);
+        for (int q = 1; q <= QUADRANTS; q++) {
+            byQuadrant.add(new TodoIdSet<>());
+        }
+        byDueDate = new DueDateIndex();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: indexes the tasks followed so far, unless they are indexed already
+    private void ensureIndexed() {
+        if (unindexed != null) {
+            List<Task> tasks = unindexed;
+            unindexed = null;
+            for (Task t : tasks) {
+                add(t);
+            }
+        }
+    }
+
+    // MODIFIES: repository, ModelEvents
+    // EFFECTS: stops following the repository and the model; the indexes are not updated any more
+    public void close() {
+        repository.removeListener(repositoryListener);
+        ModelEvents.removeListener(modelListener);
+    }
+
+    // EFFECTS: returns a new query over the indexed tasks
+    public TaskQuery query() {
+        return new TaskQuery(this);
+    }
+
+    // EFFECTS: returns the tasks with the given status, in the order they were indexed
+    public synchronized List<Task> getTasks(Status status) {
+        ensureIndexed();
+        return new ArrayList<>(byStatus.get(status));
+    }
+
+    // REQUIRES: 1 <= quadrant <= QUADRANTS
+    // EFFECTS: returns the tasks in the given priority quadrant (see quadrantOf), in the order they were indexed
+    public synchronized List<Task> getTasks(int quadrant) {
+        ensureIndexed();
+        return new ArrayList<>(byQuadrant.get(quadrant - 1));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes listener receive the moves between quadrants made from now on, and returns
+    //     modifiable copies of the quadrants (quadrant q at q - 1) as they are before the first of
+    //     those moves, so that listener can keep the copies up to date (e.g., the Priority View)
+    public synchronized List<List<Task>> mirrorQuadrants(QuadrantListener listener) {
+        ensureIndexed();
+        quadrantListeners.add(listener);
+        List<List<Task>> quadrants = new ArrayList<>(QUADRANTS);
+        for (TodoIdSet<Task> tasks : byQuadrant) {
+            quadrants.add(new ArrayList<>(tasks));
+        }
+        return quadrants;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops listener from receiving moves between quadrants
+    public void removeQuadrantListener(QuadrantListener listener) {
+        quadrantListeners.remove(listener);
+    }
+
+    // EFFECTS: returns the tasks due before now, earliest first
+    public synchronized List<Task> getOverdue() {
+        ensureIndexed();
+        return byDueDate.before(System.currentTimeMillis());
+    }
+
+    // REQUIRES: hours >= 0
+    // EFFECTS: returns the tasks due from now and within the given number of hours, earliest first
+    public synchronized List<Task> getDueWithin(int hours) {
+        ensureIndexed();
+        long now = System.currentTimeMillis();
+        return byDueDate.between(now, now + hours * MILLIS_PER_HOUR);
+    }
+
+    // EFFECTS: returns the tasks due at or after from and before to, earliest first
+    public synchronized List<Task> getDueBetween(Date from, Date to) {
+        ensureIndexed();
+        return byDueDate.between(from.getTime(), to.getTime());
+    }
+
+    // EFFECTS: returns the number of indexed tasks
+    public synchronized int size() {
+        return unindexed != null ? unindexed.size() : all.size();
+    }
+
+    // EFFECTS: returns the quadrant of priority: 1 if it is important and urgent, 2 if only important,
+    //     3 if only urgent and 4 if neither
+    public static int quadrantOf(Priority priority) {
+        if (priority.isImportant()) {
+            return priority.isUrgent() ? 1 : 2;
+        }
+        return priority.isUrgent() ? 3 : 4;
+    }
+
+    // EFFECTS: returns the tasks matching query, in the order of the smallest index entry it restricts:
+    //     the restrictions are intersected by walking that entry and probing the other restricted
+    //     entries for each of its tasks, smallest first, so the time taken is proportional to the size
+    //     of the smallest restricted entry rather than to the number of tasks
+    synchronized List<Task> run(TaskQuery query) {
+        ensureIndexed();
+        List<Restriction> restrictions = restrictionsOf(query);
+        restrictions.sort(Comparator.comparingInt(r -> r.size));
+        Collection<Task> driver = restrictions.isEmpty() ? all : restrictions.get(0).tasks.get();
+        List<Task> results = new ArrayList<>();
+        for (Task t : driver) {
+            Entry entry = entries.get(t.getId());
+            if (entry != null && entry.task == t && acceptsAll(restrictions, entry)) {
+                results.add(t);
+            }
+        }
+        return results;
+    }
+
+    // EFFECTS: returns true if every restriction after the first accepts entry
+    private static boolean acceptsAll(List<Restriction> restrictions, Entry entry) {
+        for (int i = 1; i < restrictions.size(); i++) {
+            if (!restrictions.get(i).accepts.test(entry)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // EFFECTS: returns the restrictions of query on status, quadrant, tags and due date
+    private List<Restriction> restrictionsOf(TaskQuery query) {
+        List<Restriction> restrictions = new ArrayList<>();
+        if (query.getStatuses() != null) {
+            restrictions.add(bucketRestriction(statusBuckets(query)));
+        }
+        if (query.getQuadrants() != TaskQuery.ALL_QUADRANTS) {
+            restrictions.add(bucketRestriction(quadrantBuckets(query)));
+        }
+        for (String name : query.getTags()) {
+            restrictions.add(tagRestriction(TagRegistry.lookup(name)));
+        }
+        if (query.getDueFrom() != null) {
+            int smallest = restrictions.stream().mapToInt(r -> r.size).min().orElse(0);
+            restrictions.add(dueRestriction(query.getDueFrom(), query.getDueTo(), smallest));
+        }
+        return restrictions;
+    }
+
+    // EFFECTS: returns the restriction to the tasks due at or after from and before to; its size is
+    //     counted from the range, up to smallest, the size of the smallest other restriction (so that
+    //     it only comes first if the range holds fewer tasks than every other restriction)
+    private Restriction dueRestriction(long from, long to, int smallest) {
+        return new Restriction(byDueDate.countBetween(from, to, smallest), () -> byDueDate.between(from, to),
+                e -> e.due != null && e.due >= from && e.due < to);
+    }
+
+    // EFFECTS: returns the restriction to the tasks in any of buckets
+    private static Restriction bucketRestriction(List<TodoIdSet<Task>> buckets) {
+        int size = 0;
+        for (TodoIdSet<Task> bucket : buckets) {
+            size += bucket.size();
+        }
+        return new Restriction(size, () -> {
+            List<Task> tasks = new ArrayList<>();
+            for (TodoIdSet<Task> bucket : buckets) {
+                tasks.addAll(bucket);
+            }
+            return tasks;
+        }, e -> buckets.stream().anyMatch(bucket -> bucket.contains(e.task)));
+    }
+
+    // EFFECTS: returns the restriction to the tasks tagged with tag (none if tag is null);
+    //     the tasks of tag are read under the lock of its task set
+    private static Restriction tagRestriction(Tag tag) {
+        if (tag == null) {
+            return new Restriction(0, Collections::emptyList, e -> false);
+        }
+        return new Restriction(tag.countTasks(), tag::copyTasks, e -> tag.containsTask(e.task));
+    }
+
+    // EFFECTS: returns the status buckets that query accepts
+    private List<TodoIdSet<Task>> statusBuckets(TaskQuery query) {
+        List<TodoIdSet<Task>> buckets = new ArrayList<>();
+        for (Status s : query.getStatuses()) {
+            buckets.add(byStatus.get(s));
+        }
+        return buckets;
+    }
+
+    // EFFECTS: returns the quadrant buckets that query accepts
+    private List<TodoIdSet<Task>> quadrantBuckets(TaskQuery query) {
+        List<TodoIdSet<Task>> buckets = new ArrayList<>();
+        for (int q = 1; q <= QUADRANTS; q++) {
+            if (query.hasQuadrant(q)) {
+                buckets.add(byQuadrant.get(q - 1));
+            }
+        }
+        return buckets;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: applies a change of the repository to the indexes, or to the tasks still to index
+    private synchronized void tasksChanged(Collection<Task> removed, List<Task> added) {
+        if (unindexed != null) {
+            TaskRepository.apply(unindexed, removed, added);
+            return;
+        }
+        for (Task t : removed) {
+            remove(t);
+        }
+        for (Task t : added) {
+            add(t);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: re-indexes the tasks whose status, priority or due date changed in events;
+    //     nothing to do until the tasks are indexed, since their keys are read then
+    private synchronized void modelChanged(List<ModelEvent> events) {
+        if (unindexed != null) {
+            return;
+        }
+        for (ModelEvent e : events) {
+            if (e.getKind() == ModelEvent.Kind.FIELD_CHANGED) {
+                ModelEvent.Field field = e.getField();
+                if (field == ModelEvent.Field.STATUS || field == ModelEvent.Field.PRIORITY
+                        || field == ModelEvent.Field.DUE_DATE) {
+                    reindex(e.getTask());
+                }
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves task to the buckets matching its current status, priority and due date,
+    //     if it is indexed; a task stays where it is in the buckets whose key did not change
+    private void reindex(Task task) {
+        Entry entry = entries.get(task.getId());
+        if (entry != null && entry.task == task) {
+            moveStatus(entry);
+            moveQuadrant(entry);
+            moveDue(entry);
+        }
+    }
+
+    // MODIFIES: this, entry
+    // EFFECTS: moves the task of entry to the bucket of its status, if its status changed
+    private void moveStatus(Entry entry) {
+        Status status = entry.task.getStatus();
+        if (status != entry.status) {
+            byStatus.get(entry.status).remove(entry.task);
+            byStatus.get(status).add(entry.task);
+            entry.status = status;
+        }
+    }
+
+    // MODIFIES: this, entry
+    // EFFECTS: moves the task of entry to the end of the bucket of its quadrant, if its quadrant changed,
+    //     and tells the quadrant listeners
+    private void moveQuadrant(Entry entry) {
+        int quadrant = quadrantOf(entry.task.getPriority());
+        if (quadrant != entry.quadrant) {
+            byQuadrant.get(entry.quadrant - 1).remove(entry.task);
+            byQuadrant.get(quadrant - 1).add(entry.task);
+            int from = entry.quadrant;
+            entry.quadrant = quadrant;
+            quadrantChanged(entry.task, from, quadrant);
+        }
+    }
+
+    // MODIFIES: this, entry
+    // EFFECTS: files the task of entry under its due time, if its due date changed
+    private void moveDue(Entry entry) {
+        Long due = dueOf(entry.task);
+        if (!Objects.equals(due, entry.due)) {
+            if (entry.due != null) {
+                byDueDate.remove(entry.task, entry.due);
+            }
+            if (due != null) {
+                byDueDate.add(entry.task, due);
+            }
+            entry.due = due;
+        }
+    }
+
+    // MODIFIES: this
+    private void add(Task task) {
+        Entry old = entries.get(task.getId());
+        if (old != null) {
+            remove(old.task);
+        }
+        Entry entry = new Entry(task);
+        entries.put(task.getId(), entry);
+        all.add(task);
+        bucket(entry);
+    }
+
+    // MODIFIES: this
+    private void remove(Task task) {
+        Entry entry = entries.remove(task.getId());
+        if (entry != null) {
+            all.remove(entry.task);
+            unbucket(entry);
+        }
+    }
+
+    // MODIFIES: this, entry
+    // EFFECTS: reads the keys of the task of entry and adds it to their buckets
+    private void bucket(Entry entry) {
+        Task task = entry.task;
+        entry.status = task.getStatus();
+        entry.quadrant = quadrantOf(task.getPriority());
+        entry.due = dueOf(task);
+        byStatus.get(entry.status).add(task);
+        byQuadrant.get(entry.quadrant - 1).add(task);
+        quadrantChanged(task, 0, entry.quadrant);
+        if (entry.due != null) {
+            byDueDate.add(task, entry.due);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the task of entry from the buckets of the keys it was indexed under
+    private void unbucket(Entry entry) {
+        byStatus.get(entry.status).remove(entry.task);
+        byQuadrant.get(entry.quadrant - 1).remove(entry.task);
+        quadrantChanged(entry.task, entry.quadrant, 0);
+        if (entry.due != null) {
+            byDueDate.remove(entry.task, entry.due);
+        }
+    }
+
+    // EFFECTS: returns the due time of task in milliseconds, or null if it has no due date
+    private static Long dueOf(Task task) {
+        DueDate dueDate = task.getDueDate();
+        return dueDate == Task.NO_DUE_DATE ? null : dueDate.getDate().getTime();
+    }
+
+    // EFFECTS: tells the quadrant listeners that task moved from quadrant from to quadrant to
+    private void quadrantChanged(Task task, int from, int to) {
+        for (QuadrantListener listener : quadrantListeners) {
+            try {
+                listener.quadrantChanged(task, from, to);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
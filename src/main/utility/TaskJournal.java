@@ -0,0 +1,327 @@
+package utility;
+
+import model.Tag;
+import model.Task;
+import org.json.JSONObject;
+import parsers.TaskParser;
+import persistence.BinarySnapshot;
+import persistence.Jsonifier;
+import persistence.MappedTaskList;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+// Write-ahead journal for the task list: every change to a single task is appended to the
+// journal file as one JSON record per line, instead of rewriting the whole snapshot file.
+// Once the journal grows past COMPACT_THRESHOLD records, the list is written to the snapshot
+// file in the background and the records it covers are dropped from the journal.
+// Loading reads the snapshot and replays the journal on top of it.
+// Every record is forced to disk before append returns; a record cut short by a crash is
+// dropped from the end of the journal when it is next loaded. Compaction replaces the journal
+// atomically, so a crash while it runs leaves either the old or the new journal.
+public class TaskJournal {
+    public static final int COMPACT_THRESHOLD = 500;
+    private static final String OP = "op";
+    private static final String PUT = "put";
+    private static final String REMOVE = "remove";
+
+    private File snapshotFile;
+    private final File journalFile;
+    private final ExecutorService compactor;
+    private List<Task> tasks;
+    private Supplier<List<Task>> snapshots;     // unchanging lists to compact, if tracked
+    private final Object snapshotLock = new Object();   // held while the snapshot file is written
+    private int records;
+    private boolean compacting;
+    private CompletableFuture<Void> compacted = CompletableFuture.completedFuture(null);    // the last compaction
+
+    // EFFECTS: constructs a journal that keeps its snapshot in snapshotFile and
+    //     its records in journalFile
+    public TaskJournal(File snapshotFile, File journalFile) {
+        this.snapshotFile = snapshotFile;
+        this.journalFile = journalFile;
+        compactor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "task-journal-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the tasks in the snapshot file with every record of the journal
+    //     applied in order; later changes to the returned list are expected to be
+    //     recorded in this journal
+    //   throws UncheckedIOException if the journal cannot be read; nothing is loaded in that case,
+    //     so that no compaction writes a snapshot that lacks the changes the journal records
+    public synchronized List<Task> load() {
+        List<Task> loaded = JsonFileIO.readSnapshot(snapshotFile);
+        records = 0;
+        if (journalFile.exists()) {
+            try {
+                dropTornRecord();
+                replay(loaded);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        tasks = loaded;
+        return tasks;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: cuts the journal file back to the end of its last complete line, so that a record
+    //     cut short by a crash is not merged with the next record appended
+    //   throws IOException if the journal file cannot be read or cut
+    private void dropTornRecord() throws IOException {
+        try (RandomAccessFile journal = new RandomAccessFile(journalFile, "rw")) {
+            long end = journal.length();
+            while (end > 0) {
+                journal.seek(end - 1);
+                if (journal.read() == '\n') {
+                    break;
+                }
+                end--;
+            }
+            journal.setLength(end);
+        }
+    }
+
+    // REQUIRES: load() was not called yet
+    // MODIFIES: this
+    // EFFECTS: converts the JSON snapshot file into the binary snapshot file binary (see BinarySnapshot.importJson)
+    //     and keeps the snapshot there from now on; the records of the journal apply to it unchanged
+    //   throws IOException if the snapshot could not be converted; the JSON snapshot is still used in that case
+    public void convertSnapshot(File binary) throws IOException {
+        synchronized (snapshotLock) {
+            synchronized (this) {
+                BinarySnapshot.importJson(snapshotFile, binary);
+                snapshotFile = binary;
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes compactions write the list supplied by snapshots, which must not change once
+    //     supplied (e.g., TaskRepository snapshots), instead of a copy of the list returned by load()
+    public synchronized void track(Supplier<List<Task>> snapshots) {
+        this.snapshots = snapshots;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends a record saying that task was added or edited
+    //   throws UncheckedIOException if the record could not be appended
+    public void recordPut(Task task) {
+        append(putRecord(task));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends a record saying that task was removed
+    //   throws UncheckedIOException if the record could not be appended
+    public void recordRemove(Task task) {
+        append(removeRecord(task.getId()));
+    }
+
+    // EFFECTS: returns the record saying that task was added or edited, holding its current values
+    public static String putRecord(Task task) {
+        StringWriter record = new StringWriter();
+        try {
+            record.write("{\"" + OP + "\":\"" + PUT + "\",\"task\":");
+            Jsonifier.writeTask(task, record);
+            record.write('}');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return record.toString();
+    }
+
+    // EFFECTS: returns the record saying that the task with the given id was removed
+    public static String removeRecord(long id) {
+        JSONObject record = new JSONObject();
+        record.put(OP, REMOVE);
+        record.put("id", id);
+        return record.toString();
+    }
+
+    // REQUIRES: record was returned by putRecord or removeRecord
+    // MODIFIES: this
+    // EFFECTS: appends record to the journal file and starts a compaction if the
+    //     journal has grown too long
+    //   throws UncheckedIOException if record could not be appended
+    public synchronized void append(String record) {
+        try (FileOutputStream out = new FileOutputStream(journalFile, true)) {
+            out.write((record + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+            out.getFD().sync();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        records++;
+        if (records >= COMPACT_THRESHOLD && (tasks != null || snapshots != null) && !compacting) {
+            compacting = true;
+            List<Task> copy = snapshots != null ? snapshots.get() : TaskRepository.copyOf(tasks);
+            long covered = journalFile.length();
+            compacted = CompletableFuture.runAsync(() -> compact(copy, covered), compactor);
+        }
+    }
+
+    // EFFECTS: returns a future that completes once the last compaction started has finished
+    //     (whether it succeeded or not), or a completed one if none was started
+    public synchronized CompletableFuture<Void> compaction() {
+        return compacted;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes copy to the snapshot file, then drops the first covered bytes
+    //     of the journal, which the snapshot now reflects; records appended meanwhile are kept.
+    //     If the tasks change while being written, the snapshot may hold a mix of old and new
+    //     values, but every such change has a record after covered, so replay fixes it up.
+    private void compact(List<Task> copy, long covered) {
+        try {
+            synchronized (snapshotLock) {
+                JsonFileIO.writeSnapshot(copy, snapshotFile);
+                synchronized (this) {
+                    dropHead(covered);
+                }
+            }
+        } catch (RuntimeException | IOException e) {
+            e.printStackTrace();
+        } finally {
+            synchronized (this) {
+                compacting = false;
+            }
+        }
+    }
+
+    // REQUIRES: covered <= length of the journal file
+    // MODIFIES: this
+    // EFFECTS: removes the first covered bytes of the journal file: the rest is written to a temporary
+    //     file that then replaces the journal (see JsonFileIO.writeAtomically), so a crash meanwhile
+    //     leaves the whole old journal, never old records after the new ones
+    private void dropHead(long covered) throws IOException {
+        JsonFileIO.writeAtomically(journalFile, out -> copyTail(covered, out), false);
+        records = countLines();
+    }
+
+    // EFFECTS: writes the journal file from offset on to out
+    private void copyTail(long offset, OutputStream out) throws IOException {
+        try (FileChannel channel = FileChannel.open(journalFile.toPath())) {
+            WritableByteChannel target = Channels.newChannel(out);
+            long end = channel.size();
+            for (long position = offset; position < end; ) {
+                position += channel.transferTo(position, end - position, target);
+            }
+        }
+    }
+
+    // MODIFIES: tasks
+    // EFFECTS: applies the records of the journal to tasks: tasks that were edited are replaced
+    //     in place, tasks that were removed are removed, and tasks that were added are appended
+    //     in the order they were first recorded; only the tasks named in the journal are read
+    //     from tasks, so a MappedTaskList builds no other task.
+    //     Malformed records (e.g., a line cut short by a crash) are skipped.
+    //   throws IOException if the journal file cannot be read; tasks is left unchanged in that case
+    private void replay(List<Task> tasks) throws IOException {
+        Map<Long, JSONObject> changes = readChanges();
+        applyToExisting(tasks, changes);
+        for (JSONObject taskJson : changes.values()) {
+            if (taskJson != null) {
+                Task task = replace(null, taskJson);
+                if (task != null) {
+                    tasks.add(task);
+                }
+            }
+        }
+    }
+
+    // MODIFIES: tasks, changes
+    // EFFECTS: replaces or removes the tasks of tasks named in changes, and removes them from changes
+    private void applyToExisting(List<Task> tasks, Map<Long, JSONObject> changes) {
+        List<Integer> removed = new ArrayList<>();
+        for (int i = 0; i < tasks.size() && !changes.isEmpty(); i++) {
+            long id = tasks instanceof MappedTaskList ? ((MappedTaskList) tasks).getId(i) : tasks.get(i).getId();
+            if (changes.containsKey(id)) {
+                JSONObject taskJson = changes.remove(id);
+                if (taskJson == null) {
+                    unlink(tasks.get(i));
+                    removed.add(i);
+                } else {
+                    tasks.set(i, replace(tasks.get(i), taskJson));
+                }
+            }
+        }
+        for (int i = removed.size() - 1; i >= 0; i--) {
+            tasks.remove((int) removed.get(i));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns, for each task named in the journal, the JSON of its last put record,
+    //     or null if its last record removes it; in the order the tasks are first named
+    //   throws IOException if the journal file cannot be read
+    private Map<Long, JSONObject> readChanges() throws IOException {
+        Map<Long, JSONObject> changes = new LinkedHashMap<>();
+        for (String line : JsonFileIO.readLines(journalFile)) {
+            records++;
+            try {
+                JSONObject record = new JSONObject(line);
+                if (PUT.equals(record.getString(OP))) {
+                    JSONObject taskJson = record.getJSONObject("task");
+                    changes.put(taskJson.getLong("id"), taskJson);
+                } else if (REMOVE.equals(record.getString(OP))) {
+                    changes.put(record.getLong("id"), null);
+                }
+            } catch (RuntimeException e) {
+                Logger.log("TaskJournal", "Skipping malformed record: " + e.getMessage());
+            }
+        }
+        return changes;
+    }
+
+    // MODIFIES: old
+    // EFFECTS: returns the task parsed from taskJson, after unlinking the tags of old (if any),
+    //     which it replaces; if taskJson cannot be parsed, returns old unchanged
+    private Task replace(Task old, JSONObject taskJson) {
+        List<Tag> oldTags = old == null ? new ArrayList<>() : new ArrayList<>(old.getTags());
+        unlink(old);
+        try {
+            return new TaskParser().parseTask(taskJson);
+        } catch (RuntimeException e) {
+            for (Tag t : oldTags) {
+                old.addTag(t);
+            }
+            return old;
+        }
+    }
+
+    // MODIFIES: task
+    // EFFECTS: removes every tag from task, which is being replaced or removed by replay
+    private void unlink(Task task) {
+        if (task != null) {
+            for (Tag t : new ArrayList<>(task.getTags())) {
+                task.removeTag(t);
+            }
+        }
+    }
+
+    // EFFECTS: returns the number of records in the journal file
+    //   throws IOException if the journal file cannot be read
+    private int countLines() throws IOException {
+        return journalFile.exists() ? JsonFileIO.readLines(journalFile).size() : 0;
+    }
+}
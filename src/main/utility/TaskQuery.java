@@ -0,0 +1,140 @@
+package utility;
+
+import model.Priority;
+import model.Status;
+import model.Task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+// A query over the tasks of a TaskIndex; every restriction added narrows the results, e.g.
+//     index.query().urgent().withStatus(Status.IN_PROGRESS).taggedWith("cpsc210").dueBetween(now, nextWeek).list()
+public class TaskQuery {
+    static final int ALL_QUADRANTS = 0b1111;
+
+    private TaskIndex index;
+    private Set<Status> statuses;       // null if any status matches
+    private int quadrants;              // bit q - 1 set if quadrant q matches
+    private List<String> tags;
+    private Long dueFrom;               // null if the due date is not restricted
+    private Long dueTo;
+
+    // EFFECTS: creates a query matching every task of index
+    TaskQuery(TaskIndex index) {
+        this.index = index;
+        quadrants = ALL_QUADRANTS;
+        tags = new ArrayList<>();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: restricts this query to tasks having one of the given statuses
+    public TaskQuery withStatus(Status... statuses) {
+        Set<Status> wanted = statuses.length == 0 ? EnumSet.noneOf(Status.class)
+                : EnumSet.copyOf(Arrays.asList(statuses));
+        if (this.statuses != null) {
+            wanted.retainAll(this.statuses);
+        }
+        this.statuses = wanted;
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: restricts this query to tasks with exactly the given priority
+    public TaskQuery withPriority(Priority priority) {
+        quadrants &= 1 << (TaskIndex.quadrantOf(priority) - 1);
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: restricts this query to important tasks (quadrants 1 and 2)
+    public TaskQuery important() {
+        quadrants &= 0b0011;
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: restricts this query to urgent tasks (quadrants 1 and 3)
+    public TaskQuery urgent() {
+        quadrants &= 0b0101;
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: restricts this query to tasks tagged with tagName
+    public TaskQuery taggedWith(String tagName) {
+        tags.add(tagName);
+        return this;
+    }
+
+    // REQUIRES: from and to are not null
+    // MODIFIES: this
+    // EFFECTS: restricts this query to tasks due at or after from and before to
+    public TaskQuery dueBetween(Date from, Date to) {
+        return due(from.getTime(), to.getTime());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: restricts this query to tasks due before now
+    public TaskQuery overdue() {
+        return due(Long.MIN_VALUE, System.currentTimeMillis());
+    }
+
+    // REQUIRES: hours >= 0
+    // MODIFIES: this
+    // EFFECTS: restricts this query to tasks due from now and within the given number of hours
+    public TaskQuery dueWithin(int hours) {
+        long now = System.currentTimeMillis();
+        return due(now, now + hours * TaskIndex.MILLIS_PER_HOUR);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: restricts this query to tasks due at or after start and before end, in milliseconds
+    private TaskQuery due(long start, long end) {
+        if (dueFrom != null) {
+            start = Math.max(start, dueFrom);
+            end = Math.min(end, dueTo);
+        }
+        dueFrom = start;
+        dueTo = Math.max(start, end);
+        return this;
+    }
+
+    // EFFECTS: returns the tasks matching this query
+    public List<Task> list() {
+        return index.run(this);
+    }
+
+    // EFFECTS: returns the number of tasks matching this query
+    public int count() {
+        return list().size();
+    }
+
+    Set<Status> getStatuses() {
+        return statuses;
+    }
+
+    int getQuadrants() {
+        return quadrants;
+    }
+
+    boolean hasQuadrant(int quadrant) {
+        return (quadrants & (1 << (quadrant - 1))) != 0;
+    }
+
+    List<String> getTags() {
+        return Collections.unmodifiableList(tags);
+    }
+
+    Long getDueFrom() {
+        return dueFrom;
+    }
+
+    Long getDueTo() {
+        return dueTo;
+    }
+}
@@ -0,0 +1,150 @@
+package utility;
+
+import model.Task;
+import persistence.MappedTaskList;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// The list of tasks of the application, safe to use from any thread.
+// Reads take no lock: snapshot() returns the list as it was after some write, and it never changes
+// afterwards, so a reader (e.g., a background save) sees a consistent list however long it takes.
+// Writes are serialized and copy the list before changing it (copy-on-write); a snapshot read from
+// a binary snapshot file is copied without building its tasks (see MappedTaskList.copy()).
+public class TaskRepository {
+    private volatile List<Task> tasks;      // never changed once published
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    // Receives the changes made to a repository, in the order they are made
+    public interface Listener {
+        // EFFECTS: handles the removal of removed and the addition of added (to the end of the list),
+        //     made together by one write; called on the writing thread while writes are held back
+        void tasksChanged(TaskRepository repository, Collection<Task> removed, List<Task> added);
+    }
+
+    // EFFECTS: constructs a repository holding a copy of tasks
+    public TaskRepository(List<Task> tasks) {
+        this.tasks = copyOf(tasks);
+    }
+
+    // EFFECTS: returns an unmodifiable list of the tasks, as of the last write; later writes
+    //     do not change it
+    public List<Task> snapshot() {
+        return Collections.unmodifiableList(tasks);
+    }
+
+    // EFFECTS: returns the number of tasks
+    public int size() {
+        return tasks.size();
+    }
+
+    // EFFECTS: returns true if task (or a task with its id) is in this repository
+    public boolean contains(Task task) {
+        return indexOf(tasks, task) >= 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds task to the end of the list of tasks
+    public void add(Task task) {
+        update(Collections.emptySet(), Collections.singletonList(task));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes task (or the task with its id) from the list of tasks, if it is there
+    public void remove(Task task) {
+        update(Collections.singleton(task), Collections.emptyList());
+    }
+
+    // REQUIRES: no task in added is in this repository
+    // MODIFIES: this
+    // EFFECTS: removes the tasks in removed and appends the tasks in added, in one write
+    //     that readers see either entirely or not at all
+    public synchronized void update(Collection<Task> removed, List<Task> added) {
+        List<Task> next = copyOf(tasks);
+        List<Task> actuallyRemoved = apply(next, removed, added);
+        tasks = next;
+        if (!actuallyRemoved.isEmpty() || !added.isEmpty()) {
+            notifyListeners(actuallyRemoved, Collections.unmodifiableList(added));
+        }
+    }
+
+    // MODIFIES: tasks
+    // EFFECTS: removes the tasks in removed (or the tasks with their ids) from tasks and appends
+    //     the tasks in added, as update does (e.g., to keep a copy of the tasks up to date);
+    //     returns the tasks of removed that were in tasks
+    static List<Task> apply(List<Task> tasks, Collection<Task> removed, List<Task> added) {
+        List<Task> actuallyRemoved = new ArrayList<>();
+        for (Task t : removed) {
+            int i = indexOf(tasks, t);
+            if (i >= 0) {
+                tasks.remove(i);
+                actuallyRemoved.add(t);
+            }
+        }
+        tasks.addAll(added);
+        return actuallyRemoved;
+    }
+
+    // EFFECTS: reports to every listener that removed were removed and added were appended;
+    //     a listener that fails does not keep the others from the change
+    private void notifyListeners(Collection<Task> removed, List<Task> added) {
+        for (Listener listener : listeners) {
+            try {
+                listener.tasksChanged(this, removed, added);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes listener receive the changes made from now on
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes listener receive the changes made from now on and returns a modifiable copy
+    //     of the tasks as they are before the first of those changes, so that listener can keep
+    //     the copy up to date (e.g., the list shown by the UI); the tasks of a MappedTaskList are not built
+    public synchronized List<Task> mirror(Listener listener) {
+        listeners.add(listener);
+        return copyOf(tasks);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops listener from receiving changes
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    // EFFECTS: returns a modifiable copy of tasks; the tasks of a MappedTaskList are not built
+    public static List<Task> copyOf(List<Task> tasks) {
+        if (tasks instanceof MappedTaskList) {
+            return ((MappedTaskList) tasks).copy();
+        }
+        return new ArrayList<>(tasks);
+    }
+
+    // EFFECTS: returns the position of the task with the id of task in tasks, or -1 if there is none;
+    //     tasks are compared by id, so the tasks of a MappedTaskList are not built
+    public static int indexOf(List<Task> tasks, Task task) {
+        long id = task.getId();
+        MappedTaskList mapped = tasks instanceof MappedTaskList ? (MappedTaskList) tasks : null;
+        for (int i = 0; i < tasks.size(); i++) {
+            if ((mapped != null ? mapped.getId(i) : tasks.get(i).getId()) == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // EFFECTS: returns the list held by this repository, for BinarySnapshot.write to recognise
+    //     a MappedTaskList; it must not be changed
+    List<Task> rawSnapshot() {
+        return tasks;
+    }
+}
@@ -0,0 +1,137 @@
+package utility;
+
+import model.Task;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Rows of tasks in the order they were added, for list views that move tasks from one group of rows
+// to another: finding the row of a task, reading the task in a row, appending a task and removing one
+// each take O(log n) for n rows. A removed task leaves an empty slot behind; the tasks before each slot
+// are counted in a Fenwick (binary indexed) tree, and the slots are compacted once they run out.
+// Tasks are told apart by id. Not safe to use from several threads at once.
+public class TaskRows {
+    private static final int MIN_CAPACITY = 16;
+
+    private Task[] slots;               // the tasks in order, null where a task was removed
+    private int[] counts;               // Fenwick tree: counts[i] counts the tasks in a range ending at slot i - 1
+    private int used;                   // slots filled so far, including those of removed tasks
+    private int size;
+    private Map<Long, Integer> slotById = new HashMap<>();
+
+    // EFFECTS: constructs rows holding tasks, in order
+    public TaskRows(List<Task> tasks) {
+        fill(tasks.toArray(new Task[0]));
+    }
+
+    // EFFECTS: returns the number of rows
+    public int size() {
+        return size;
+    }
+
+    // EFFECTS: returns the task in the given row
+    //   throws IndexOutOfBoundsException if row < 0 or row >= size()
+    public Task get(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row: " + row + ", size: " + size);
+        }
+        int slot = 0;
+        int remaining = row + 1;
+        for (int step = Integer.highestOneBit(slots.length); step > 0; step >>= 1) {
+            int next = slot + step;
+            if (next <= slots.length && counts[next] < remaining) {
+                slot = next;
+                remaining -= counts[next];
+            }
+        }
+        return slots[slot];
+    }
+
+    // EFFECTS: returns the row of task (or of the task with its id), or -1 if it is not in these rows
+    public int indexOf(Task task) {
+        Integer slot = slotById.get(task.getId());
+        return slot == null ? -1 : countBefore(slot);
+    }
+
+    // REQUIRES: task (or a task with its id) is not in these rows
+    // MODIFIES: this
+    // EFFECTS: adds task as the last row
+    public void add(Task task) {
+        if (used == slots.length) {
+            compact();
+        }
+        slots[used] = task;
+        slotById.put(task.getId(), used);
+        increment(used, 1);
+        used++;
+        size++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes task (or the task with its id) and returns the row it was in,
+    //     or returns -1 if it is not in these rows
+    public int remove(Task task) {
+        Integer slot = slotById.remove(task.getId());
+        if (slot == null) {
+            return -1;
+        }
+        int row = countBefore(slot);
+        slots[slot] = null;
+        increment(slot, -1);
+        size--;
+        return row;
+    }
+
+    // EFFECTS: returns the number of tasks in the slots before slot
+    private int countBefore(int slot) {
+        int count = 0;
+        for (int i = slot; i > 0; i -= i & -i) {
+            count += counts[i];
+        }
+        return count;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds delta to the number of tasks in slot
+    private void increment(int slot, int delta) {
+        for (int i = slot + 1; i <= slots.length; i += i & -i) {
+            counts[i] += delta;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves the tasks to the front of new slots, twice as many as there are tasks
+    private void compact() {
+        Task[] tasks = new Task[size];
+        int n = 0;
+        for (int i = 0; i < used; i++) {
+            if (slots[i] != null) {
+                tasks[n++] = slots[i];
+            }
+        }
+        fill(tasks);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes tasks the rows, in the first slots of twice as many (and at least MIN_CAPACITY) slots;
+    //     the counts are built in O(number of slots) by adding each one into the next range that covers it
+    private void fill(Task[] tasks) {
+        slots = Arrays.copyOf(tasks, Math.max(MIN_CAPACITY, 2 * tasks.length));
+        counts = new int[slots.length + 1];
+        slotById.clear();
+        for (int i = 1; i <= slots.length; i++) {
+            if (i <= tasks.length) {
+                slotById.put(tasks[i - 1].getId(), i - 1);
+                counts[i]++;
+            }
+            int parent = i + (i & -i);
+            if (parent <= slots.length) {
+                counts[parent] += counts[i];
+            }
+        }
+        used = tasks.length;
+        size = tasks.length;
+    }
+}
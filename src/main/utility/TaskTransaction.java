@@ -0,0 +1,181 @@
+package utility;
+
+import model.ModelEvents;
+import model.Task;
+import model.TaskState;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+// A group of changes to a task repository that takes effect all at once, or not at all.
+// Tasks added or removed in the transaction change the repository in one write when it commits,
+// and every task touched is saved in one batch of the save queue. Rolling back undoes the changes
+// made to tasks. Call edit(task) before changing a task, so that its change can be rolled back.
+// The changes made in run(...) reach ModelEvents listeners in one batch when the transaction commits,
+// and not at all if it rolls back.
+public class TaskTransaction {
+    private TaskRepository tasks;
+    private SaveQueue saveQueue;
+    private List<TaskState> edited;
+    private List<Task> added;
+    private Set<Task> editedTasks;
+    private Set<Task> addedTasks;
+    private Set<Task> removedTasks;
+    private boolean open;
+
+    // EFFECTS: starts a transaction on tasks that saves through JsonFileIO
+    //     the transaction must end with commit() or rollback()
+    public TaskTransaction(TaskRepository tasks) {
+        this(tasks, JsonFileIO.getSaveQueue());
+    }
+
+    // EFFECTS: starts a transaction on tasks that saves through saveQueue
+    //     the transaction must end with commit() or rollback()
+    public TaskTransaction(TaskRepository tasks, SaveQueue saveQueue) {
+        this.tasks = tasks;
+        this.saveQueue = saveQueue;
+        edited = new ArrayList<>();
+        added = new ArrayList<>();
+        editedTasks = identitySet();
+        addedTasks = identitySet();
+        removedTasks = identitySet();
+        open = true;
+    }
+
+    // EFFECTS: runs changes in a new transaction on tasks, saving through JsonFileIO;
+    //     commits it if changes completes, otherwise rolls it back and rethrows the exception;
+    //     returns a future that completes once the committed changes are saved
+    public static CompletableFuture<Void> run(TaskRepository tasks, Consumer<TaskTransaction> changes) {
+        return run(new TaskTransaction(tasks), changes);
+    }
+
+    // EFFECTS: as run(tasks, changes), in the given, newly started transaction; the model changes
+    //     made by changes are held back in a batch of this thread until the transaction ends
+    public static CompletableFuture<Void> run(TaskTransaction transaction, Consumer<TaskTransaction> changes) {
+        ModelEvents.beginBatch();
+        try {
+            changes.accept(transaction);
+        } catch (RuntimeException e) {
+            try {
+                transaction.rollback();
+            } finally {
+                ModelEvents.cancelBatch();
+            }
+            throw e;
+        }
+        try {
+            return transaction.commit();
+        } finally {
+            ModelEvents.endBatch();
+        }
+    }
+
+    // REQUIRES: task is not in the repository
+    // MODIFIES: this
+    // EFFECTS: adds task to the end of the repository when this transaction commits
+    //   throws IllegalStateException if this transaction has ended
+    public void add(Task task) {
+        checkOpen();
+        if (removedTasks.remove(task)) {
+            return;
+        }
+        if (addedTasks.add(task)) {
+            added.add(task);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes task from the repository when this transaction commits
+    //   throws IllegalStateException if this transaction has ended
+    public void remove(Task task) {
+        checkOpen();
+        if (addedTasks.remove(task)) {
+            added.removeIf(t -> t == task);
+        } else {
+            removedTasks.add(task);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: remembers the state of task, unless it was already remembered, so that
+    //     the changes about to be made to it can be rolled back; returns task
+    //   throws IllegalStateException if this transaction has ended
+    public Task edit(Task task) {
+        checkOpen();
+        if (editedTasks.add(task)) {
+            edited.add(new TaskState(task));
+        }
+        return task;
+    }
+
+    // MODIFIES: this, the repository, ModelEvents
+    // EFFECTS: applies the additions and removals to the repository, reporting the model changes
+    //     this makes in one batch, and queues saving every task touched; returns a future that
+    //     completes once they are saved
+    //   throws IllegalStateException if this transaction has ended
+    public CompletableFuture<Void> commit() {
+        checkOpen();
+        open = false;
+        ModelEvents.beginBatch();
+        try {
+            if (!removedTasks.isEmpty() || !added.isEmpty()) {
+                tasks.update(removedTasks, added);
+            }
+        } finally {
+            ModelEvents.endBatch();
+        }
+        return saveTouched();
+    }
+
+    // EFFECTS: queues saving every task added, removed or edited in this transaction;
+    //     returns a future that completes once they are saved
+    private CompletableFuture<Void> saveTouched() {
+        List<CompletableFuture<Void>> saved = new ArrayList<>();
+        for (Task t : removedTasks) {
+            saved.add(saveQueue.removeTask(t));
+        }
+        for (Task t : added) {
+            saved.add(saveQueue.saveTask(t));
+        }
+        for (TaskState s : edited) {
+            Task t = s.getTask();
+            if (!addedTasks.contains(t) && !removedTasks.contains(t)) {
+                saved.add(saveQueue.saveTask(t));
+            }
+        }
+        return CompletableFuture.allOf(saved.toArray(new CompletableFuture<?>[0]));
+    }
+
+    // MODIFIES: this, the tasks edited in this transaction
+    // EFFECTS: puts every task edited in this transaction back in the state it had when edit
+    //     was first called on it, and drops the additions and removals
+    //   throws IllegalStateException if this transaction has ended
+    public void rollback() {
+        checkOpen();
+        open = false;
+        for (int i = edited.size() - 1; i >= 0; i--) {
+            edited.get(i).restore();
+        }
+    }
+
+    // EFFECTS: returns true if this transaction has neither committed nor rolled back
+    public boolean isOpen() {
+        return open;
+    }
+
+    // EFFECTS: throws IllegalStateException if this transaction has ended
+    private void checkOpen() {
+        if (!open) {
+            throw new IllegalStateException("Transaction has already ended");
+        }
+    }
+
+    private static Set<Task> identitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+}
@@ -0,0 +1,23 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+// Temporary directories for the tests that write files
+public class TempFiles {
+    // EFFECTS: creates a new, empty temporary directory whose name starts with prefix
+    public static File createDirectory(String prefix) throws IOException {
+        return Files.createTempDirectory(prefix).toFile();
+    }
+
+    // EFFECTS: deletes file and, if it is a directory, everything in it; a file that is still
+    //     memory-mapped (see MappedTaskList) cannot be deleted on some platforms and is left behind
+    public static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,129 @@
+import model.DueDate;
+import model.ModelEvents;
+import model.ModelListener;
+import model.Priority;
+import model.Status;
+import model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import persistence.BinarySnapshot;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestBinarySnapshot {
+    private File dir;
+    private List<Task> tasks;
+
+    @BeforeEach
+    public void runBefore() throws IOException {
+        dir = TempFiles.createDirectory("snapshot");
+        tasks = new ArrayList<>();
+        Task task1 = new Task("Download the syllabus");
+        task1.setStatus(Status.IN_PROGRESS);
+        task1.setPriority(new Priority(3));
+        task1.addTag("cpsc210");
+        task1.addTag("binary");
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(2019, 1, 17, 23, 59);
+        task1.setDueDate(new DueDate(calendar.getTime()));
+        Task task2 = new Task("Read the syllabus \u00e9");
+        task2.addTag("cpsc210");
+        tasks.add(task1);
+        tasks.add(task2);
+    }
+
+    @AfterEach
+    public void runAfter() {
+        TempFiles.delete(dir);
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        File file = new File(dir, "tasks.bin");
+        BinarySnapshot.write(tasks, file);
+        assertTrue(BinarySnapshot.isBinarySnapshot(file));
+        List<Task> read = BinarySnapshot.read(file);
+        assertEquals(tasks, read);
+        assertEquals(tasks.get(0).getId(), read.get(0).getId());
+        assertEquals(tasks.get(1).getDescription(), read.get(1).getDescription());
+        assertEquals(Status.IN_PROGRESS, read.get(0).getStatus());
+        assertEquals(new Priority(3), read.get(0).getPriority());
+        assertEquals(tasks.get(0).getDueDate(), read.get(0).getDueDate());
+        assertTrue(read.get(0).containsTag("binary"));
+        assertEquals(2, read.get(0).getTags().size());
+        assertNull(read.get(1).getDueDate());
+    }
+
+    @Test
+    public void testReadFiresNoEvents() throws IOException {
+        File file = new File(dir, "tasks.bin");
+        BinarySnapshot.write(tasks, file);
+        List<Object> fired = new ArrayList<>();
+        ModelListener listener = fired::addAll;
+        ModelEvents.addListener(listener);
+        try {
+            assertEquals(tasks, BinarySnapshot.read(file));
+        } finally {
+            ModelEvents.removeListener(listener);
+        }
+        assertTrue(fired.isEmpty());
+    }
+
+    @Test
+    public void testEmpty() throws IOException {
+        File file = new File(dir, "tasks.bin");
+        BinarySnapshot.write(new ArrayList<>(), file);
+        assertTrue(BinarySnapshot.read(file).isEmpty());
+    }
+
+    @Test
+    public void testJsonImportExport() throws IOException {
+        File binary = new File(dir, "tasks.bin");
+        File json = new File(dir, "tasks.json");
+        File jsonAgain = new File(dir, "again.json");
+        BinarySnapshot.write(tasks, binary);
+        BinarySnapshot.exportJson(binary, json);
+        assertFalse(BinarySnapshot.isBinarySnapshot(json));
+        BinarySnapshot.importJson(json, binary);
+        BinarySnapshot.exportJson(binary, jsonAgain);
+        assertEquals(tasks, BinarySnapshot.read(binary));
+        assertArrayEquals(Files.readAllBytes(json.toPath()), Files.readAllBytes(jsonAgain.toPath()));
+    }
+
+    @Test
+    public void testGenerations() throws IOException {
+        File file = new File(dir, "tasks.bin");
+        BinarySnapshot.write(tasks, file);
+        BinarySnapshot.write(tasks.subList(0, 1), file);
+        BinarySnapshot.write(new ArrayList<>(), file);
+        List<File> generations = BinarySnapshot.generations(file);
+        assertEquals(2, generations.size());
+        assertEquals(new File(dir, "tasks.bin.2"), generations.get(0));
+        assertEquals(new File(dir, "tasks.bin.1"), generations.get(1));
+        assertFalse(file.exists());
+        assertEquals(generations.get(0), BinarySnapshot.current(file));
+        assertTrue(BinarySnapshot.read(file).isEmpty());
+        assertEquals(tasks.subList(0, 1), BinarySnapshot.read(generations.get(1)));
+    }
+
+    @Test
+    public void testNotASnapshot() throws IOException {
+        File file = new File(dir, "tasks.json");
+        Files.write(file.toPath(), "[]".getBytes());
+        assertFalse(BinarySnapshot.isBinarySnapshot(file));
+        try {
+            BinarySnapshot.read(file);
+            fail("IOException should have thrown");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,92 @@
+import model.Status;
+import model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import persistence.BinarySnapshot;
+import utility.JsonFileIO;
+import utility.TaskRepository;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestJsonFileIO {
+    private File dir;
+    private File file;
+
+    @BeforeEach
+    public void runBefore() throws IOException {
+        dir = TempFiles.createDirectory("data");
+        file = new File(dir, "atomic.json");
+        JsonFileIO.setDataDirectory(dir);
+    }
+
+    @AfterEach
+    public void runAfter() {
+        JsonFileIO.setDataDirectory(JsonFileIO.DEFAULT_DATA_DIRECTORY);
+        TempFiles.delete(dir);
+    }
+
+    @Test
+    public void testWriteAtomicallyKeepsBackup() throws IOException {
+        JsonFileIO.writeAtomically(file, out -> out.write("first".getBytes()));
+        assertEquals("first", read(file));
+        assertFalse(JsonFileIO.backupOf(file).exists());
+        JsonFileIO.writeAtomically(file, out -> out.write("second".getBytes()));
+        assertEquals("second", read(file));
+        assertEquals("first", read(JsonFileIO.backupOf(file)));
+        JsonFileIO.writeAtomically(file, out -> out.write("third".getBytes()));
+        assertEquals("third", read(file));
+        assertEquals("second", read(JsonFileIO.backupOf(file)));
+    }
+
+    @Test
+    public void testFailedWriteLeavesFileUnchanged() throws IOException {
+        JsonFileIO.writeAtomically(file, out -> out.write("first".getBytes()));
+        try {
+            JsonFileIO.writeAtomically(file, out -> {
+                out.write("partial".getBytes());
+                throw new IOException("disk full");
+            });
+            fail("IOException should have thrown");
+        } catch (IOException e) {
+            // expected
+        }
+        assertEquals("first", read(file));
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+    }
+
+    @Test
+    public void testReadRepositoryConvertsJsonDataFile() throws Exception {
+        Task task = new Task("Task 1");
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(task);
+        BinarySnapshot.write(tasks, new File(dir, "export.bin"));
+        BinarySnapshot.exportJson(new File(dir, "export.bin"), JsonFileIO.dataFile(JsonFileIO.JSON_DATA_FILE));
+
+        TaskRepository repository = JsonFileIO.readRepository();
+        assertEquals(1, repository.size());
+        assertFalse(JsonFileIO.dataFile(JsonFileIO.JSON_DATA_FILE).exists());
+        assertTrue(JsonFileIO.dataFile(JsonFileIO.IMPORTED_JSON_FILE).exists());
+        assertTrue(BinarySnapshot.isBinarySnapshot(JsonFileIO.dataFile(JsonFileIO.BINARY_DATA_FILE)));
+
+        Task edited = repository.snapshot().get(0);
+        edited.setStatus(Status.DONE);
+        JsonFileIO.saveTaskLater(edited);
+        JsonFileIO.flush().get(5, TimeUnit.SECONDS);
+        JsonFileIO.setDataDirectory(dir);
+        List<Task> reread = JsonFileIO.read();
+        assertEquals(task.getId(), reread.get(0).getId());
+        assertEquals(Status.DONE, reread.get(0).getStatus());
+    }
+
+    private String read(File f) throws IOException {
+        return new String(Files.readAllBytes(f.toPath()));
+    }
+}
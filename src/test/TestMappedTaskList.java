@@ -0,0 +1,113 @@
+import model.Status;
+import model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import persistence.BinarySnapshot;
+import persistence.MappedTaskList;
+import utility.TaskJournal;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestMappedTaskList {
+    private File file;
+    private List<Task> tasks;
+
+    @BeforeEach
+    public void runBefore() throws IOException {
+        file = new File(TempFiles.createDirectory("mapped"), "tasks.bin");
+        tasks = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Task task = new Task("Task " + i);
+            task.addTag("mapped");
+            tasks.add(task);
+        }
+        BinarySnapshot.write(tasks, file);
+    }
+
+    @AfterEach
+    public void runAfter() {
+        TempFiles.delete(file.getParentFile());
+    }
+
+    @Test
+    public void testLazyMaterialization() throws IOException {
+        MappedTaskList mapped = MappedTaskList.open(file);
+        assertEquals(5, mapped.size());
+        assertFalse(mapped.isMaterialized(2));
+        assertEquals(tasks.get(2).getId(), mapped.getId(2));
+        assertFalse(mapped.isMaterialized(2));
+        Task task = mapped.get(2);
+        assertEquals(tasks.get(2), task);
+        assertTrue(mapped.isMaterialized(2));
+        assertSame(task, mapped.get(2));
+        assertFalse(mapped.isMaterialized(3));
+        assertTrue(new Task("New").getId() > tasks.get(4).getId());
+    }
+
+    @Test
+    public void testModify() throws IOException {
+        MappedTaskList mapped = MappedTaskList.open(file);
+        Task added = new Task("Added");
+        mapped.add(1, added);
+        Task removed = mapped.remove(3);
+        assertEquals(tasks.get(2), removed);
+        mapped.set(0, new Task("Replaced"));
+        assertEquals(5, mapped.size());
+        assertEquals("Replaced", mapped.get(0).getDescription());
+        assertSame(added, mapped.get(1));
+        assertEquals(tasks.get(1), mapped.get(2));
+        assertEquals(tasks.get(4), mapped.get(4));
+    }
+
+    @Test
+    public void testCopiesShareBuiltTasks() throws IOException {
+        MappedTaskList mapped = MappedTaskList.open(file);
+        MappedTaskList copy = mapped.copy();
+        Task task = copy.get(3);
+        assertTrue(mapped.isMaterialized(3));
+        assertSame(task, mapped.get(3));
+        mapped.remove(0);
+        assertSame(task, mapped.get(2));
+        assertSame(task, mapped.copy().get(2));
+    }
+
+    @Test
+    public void testWriteWithoutMaterializing() throws IOException {
+        MappedTaskList mapped = MappedTaskList.open(file);
+        mapped.get(0).setStatus(Status.DONE);
+        MappedTaskList copy = mapped.copy();
+        BinarySnapshot.write(copy, file);
+        assertFalse(copy.isMaterialized(1));
+        assertEquals(tasks.get(1), mapped.get(1));
+        List<Task> reread = BinarySnapshot.read(file);
+        assertEquals(Status.DONE, reread.get(0).getStatus());
+        assertEquals(tasks.subList(1, 5), reread.subList(1, 5));
+    }
+
+    @Test
+    public void testJournalReplayOverSnapshot() {
+        File journalFile = new File(file.getParentFile(), "tasks.journal");
+        TaskJournal journal = new TaskJournal(file, journalFile);
+        List<Task> loaded = journal.load();
+        Task edited = loaded.get(3);
+        edited.setStatus(Status.UP_NEXT);
+        journal.recordPut(edited);
+        journal.recordRemove(loaded.get(1));
+        Task added = new Task("Added");
+        journal.recordPut(added);
+
+        List<Task> replayed = new TaskJournal(file, journalFile).load();
+        assertTrue(replayed instanceof MappedTaskList);
+        assertEquals(5, replayed.size());
+        assertFalse(((MappedTaskList) replayed).isMaterialized(0));
+        assertEquals(Status.UP_NEXT, replayed.get(2).getStatus());
+        assertEquals(added.getId(), replayed.get(4).getId());
+        assertEquals(tasks.get(0).getId(), replayed.get(0).getId());
+    }
+}
@@ -0,0 +1,89 @@
+import model.Tag;
+import model.Task;
+import org.junit.jupiter.api.Test;
+import parsers.MetadataParser;
+import parsers.TagParser;
+import parsers.exceptions.ParsingException;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestMetadataParser {
+    private static final String[] DESCRIPTIONS = {
+        "Buy milk",
+        "Buy milk ## today; important; grocery",
+        "Read ##TOMORROW;Urgent; in PROGRESS ;done; today; cpsc210",
+        "Call home ## ;; ; up next ;  ; to do ; Up Next; #family; #Family",
+        "Plan ## important; urgent; important",
+        "Nested ## a; b ## c; d",
+        "Hashes ###tag; ####",
+        "## done; leading",
+        "Spaces ##   ;   in progress   ;   tomorrow   ",
+        "Tabs ##\ttoday\t;\tdone\t",
+    };
+
+    @Test
+    public void testMatchesTagParser() throws ParsingException {
+        for (String description : DESCRIPTIONS) {
+            Task expected = new Task("expected");
+            String expectedDescription = description;
+            TagParser tagParser = new TagParser();
+            try {
+                tagParser.parse(description, expected);
+                expectedDescription = tagParser.getDescription();
+            } catch (ParsingException e) {
+                // no meta-data
+            }
+            Task actual = new Task("actual");
+            assertEquals(expectedDescription, MetadataParser.parse(description, actual), description);
+            assertSameMetadata(expected, actual, description);
+        }
+    }
+
+    // EFFECTS: checks that actual got the same meta-data from description as expected
+    private void assertSameMetadata(Task expected, Task actual, String description) {
+        assertEquals(expected.getStatus(), actual.getStatus(), description);
+        assertEquals(expected.getPriority(), actual.getPriority(), description);
+        assertEquals(expected.getDueDate() == null, actual.getDueDate() == null, description);
+        if (expected.getDueDate() != null) {
+            assertEquals(expected.getDueDate().isDueToday(), actual.getDueDate().isDueToday(), description);
+            assertEquals(expected.getDueDate().isDueTomorrow(), actual.getDueDate().isDueTomorrow(), description);
+        }
+        assertEquals(tagNames(expected), tagNames(actual), description);
+    }
+
+    @Test
+    public void testDelimiterAtEnd() {
+        Task task = new Task("Buy milk ##");
+        assertEquals("Buy milk ", task.getDescription());
+        assertTrue(task.getTags().isEmpty());
+    }
+
+    @Test
+    public void testSharedAcrossThreads() throws InterruptedException {
+        Thread[] threads = new Thread[4];
+        Task[] tasks = new Task[threads.length];
+        for (int i = 0; i < threads.length; i++) {
+            int index = i;
+            threads[i] = new Thread(() -> tasks[index] = new Task("Thread " + index + " ## urgent; done; shared"));
+            threads[i].start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        for (Task t : tasks) {
+            assertTrue(t.getPriority().isUrgent());
+            assertTrue(t.containsTag("shared"));
+        }
+    }
+
+    private static Set<String> tagNames(Task task) {
+        Set<String> names = new HashSet<>();
+        for (Tag t : task.getTags()) {
+            names.add(t.getName());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,173 @@
+import model.ModelEvent;
+import model.ModelEvents;
+import model.ModelListener;
+import model.Priority;
+import model.Project;
+import model.Status;
+import model.Tag;
+import model.TagRegistry;
+import model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestModelEvents {
+    private List<List<String>> deliveries;
+    private ModelListener listener;
+
+    @BeforeEach
+    public void runBefore() {
+        deliveries = new ArrayList<>();
+        listener = events -> {
+            List<String> delivery = new ArrayList<>();
+            for (ModelEvent e : events) {
+                delivery.add(e.getKind() + (e.getField() == null ? "" : " " + e.getField()));
+            }
+            deliveries.add(delivery);
+        };
+        ModelEvents.addListener(listener);
+    }
+
+    @AfterEach
+    public void runAfter() {
+        ModelEvents.removeListener(listener);
+    }
+
+    @Test
+    public void testConstructionIsNotReported() {
+        new Task("events construct ## today; important; #events");
+        assertTrue(deliveries.isEmpty());
+    }
+
+    @Test
+    public void testFieldChanged() {
+        Task task = new Task("events field");
+        List<Object> oldValues = new ArrayList<>();
+        ModelListener oldValueListener = events -> oldValues.add(events.get(0).getOldValue());
+        ModelEvents.addListener(oldValueListener);
+        try {
+            changeFields(task);
+        } finally {
+            ModelEvents.removeListener(oldValueListener);
+        }
+        assertEquals(4, deliveries.size());
+        assertEquals("[FIELD_CHANGED STATUS]", deliveries.get(0).toString());
+        assertEquals("[FIELD_CHANGED PRIORITY]", deliveries.get(3).toString());
+        assertEquals(Status.TODO, oldValues.get(0));
+        assertEquals(0, oldValues.get(1));
+        assertEquals(new Priority(4), oldValues.get(3));
+    }
+
+    // MODIFIES: task
+    // EFFECTS: sets the status twice (the second time to the same value), the progress,
+    //     the estimated time and the priority of task
+    private void changeFields(Task task) {
+        task.setStatus(Status.DONE);
+        task.setStatus(Status.DONE);
+        task.setProgress(50);
+        task.setEstimatedTimeToComplete(3);
+        Priority priority = new Priority(4);
+        task.setPriority(priority);
+        priority = new Priority(4);
+        priority.setUrgent(true);
+        task.setPriority(priority);
+    }
+
+    @Test
+    public void testBatchOnlyHoldsBackItsOwnThread() throws InterruptedException {
+        Task task = new Task("events batch thread");
+        Task other = new Task("events other thread");
+        ModelEvents.beginBatch();
+        try {
+            task.setProgress(10);
+            Thread thread = new Thread(() -> other.setProgress(20));
+            thread.start();
+            thread.join();
+            assertEquals(1, deliveries.size());
+        } finally {
+            ModelEvents.endBatch();
+        }
+        assertEquals(2, deliveries.size());
+        assertEquals("[FIELD_CHANGED PROGRESS]", deliveries.get(1).toString());
+    }
+
+    @Test
+    public void testTagLinkedOnceFromEitherSide() {
+        Task task = new Task("events tags");
+        Tag tag = TagRegistry.intern("events tag");
+        tag.addTask(task);
+        task.addTag(tag);
+        task.removeTag("events tag");
+        assertEquals(2, deliveries.size());
+        assertEquals("[TAG_LINKED]", deliveries.get(0).toString());
+        assertEquals("[TAG_UNLINKED]", deliveries.get(1).toString());
+    }
+
+    @Test
+    public void testSetDescriptionIsOneBatch() {
+        Task task = new Task("events description");
+        task.setDescription("events parsed ## in progress; #events batch");
+        assertEquals(1, deliveries.size());
+        assertTrue(deliveries.get(0).contains("FIELD_CHANGED STATUS"));
+        assertTrue(deliveries.get(0).contains("TAG_LINKED"));
+        assertTrue(deliveries.get(0).contains("FIELD_CHANGED DESCRIPTION"));
+    }
+
+    @Test
+    public void testChildren() {
+        Project project = new Project("events project");
+        Task task1 = new Task("events child 1");
+        Task task2 = new Task("events child 2");
+        project.add(task1);
+        project.add(task1);
+        project.remove(task1);
+        List<Task> both = new ArrayList<>();
+        both.add(task1);
+        both.add(task2);
+        project.addAll(both);
+        assertEquals(3, deliveries.size());
+        assertEquals("[CHILD_ADDED]", deliveries.get(0).toString());
+        assertEquals("[CHILD_REMOVED]", deliveries.get(1).toString());
+        assertEquals("[CHILD_ADDED, CHILD_ADDED]", deliveries.get(2).toString());
+    }
+
+    @Test
+    public void testNestedBatches() {
+        Task task = new Task("events batch");
+        ModelEvents.beginBatch();
+        task.setStatus(Status.UP_NEXT);
+        ModelEvents.beginBatch();
+        task.setStatus(Status.IN_PROGRESS);
+        ModelEvents.endBatch();
+        assertTrue(deliveries.isEmpty());
+        task.setProgress(10);
+        ModelEvents.endBatch();
+        assertEquals(1, deliveries.size());
+        assertEquals(3, deliveries.get(0).size());
+    }
+
+    @Test
+    public void testChangesMadeByListenerComeAfter() {
+        Task task = new Task("events reentrant");
+        ModelListener completer = events -> {
+            if (events.get(0).getField() == ModelEvent.Field.STATUS && task.getStatus() == Status.DONE) {
+                task.setProgress(100);
+            }
+        };
+        ModelEvents.addListener(completer);
+        try {
+            task.setStatus(Status.DONE);
+        } finally {
+            ModelEvents.removeListener(completer);
+        }
+        assertEquals(2, deliveries.size());
+        assertEquals("[FIELD_CHANGED STATUS]", deliveries.get(0).toString());
+        assertEquals("[FIELD_CHANGED PROGRESS]", deliveries.get(1).toString());
+        assertEquals(100, task.getProgress());
+    }
+}
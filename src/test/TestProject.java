@@ -4,6 +4,10 @@ import model.exceptions.NullArgumentException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class TestProject {
@@ -99,6 +103,30 @@ public class TestProject {
         }
     }
 
+    @Test
+    public void testAddAll() {
+        Task task1 = new Task("task1");
+        Task task2 = new Task("task2");
+        Task task3 = new Task("task3");
+        project.add(task2);
+        project.addAll(Arrays.asList(task1, task2, task3, task1));
+        assertEquals(3, project.getNumberOfTasks());
+        assertTrue(project.contains(task1));
+        assertTrue(project.contains(task2));
+        assertTrue(project.contains(task3));
+    }
+
+    @Test
+    public void testAddAllNull() {
+        Task task1 = new Task("task1");
+        try {
+            project.addAll(Arrays.asList(task1, null));
+            fail("NullArgumentException should have thrown");
+        } catch (NullArgumentException e) {
+            assertEquals(0, project.getNumberOfTasks());
+        }
+    }
+
     @Test
     public void testRemoveTask() {
         try {
@@ -230,6 +258,50 @@ public class TestProject {
         assertEquals(29, project2.getProgress());
     }
 
+    @Test
+    public void testProgressAndEstimatedTimeUpdatedThroughNestedProjects() {
+        assertEquals(100, project.getProgress());
+        Task task1 = new Task("Task1");
+        Task task3 = nestTwoTasks(task1, new Task("Task2"));
+        assertEquals(0, project.getProgress());
+        task3.setProgress(100);
+        task3.setEstimatedTimeToComplete(4);
+        assertEquals(50, project2.getProgress());
+        assertEquals(25, project.getProgress());
+        assertEquals(4, project.getEstimatedTimeToComplete());
+        task1.setEstimatedTimeToComplete(3);
+        assertEquals(7, project.getEstimatedTimeToComplete());
+    }
+
+    @Test
+    public void testProgressAndEstimatedTimeUpdatedOnRemoveFromNestedProjects() {
+        Task task1 = new Task("Task1");
+        Task task2 = new Task("Task2");
+        Task task3 = nestTwoTasks(task1, task2);
+        task1.setEstimatedTimeToComplete(3);
+        task3.setProgress(100);
+        project2.remove(task2);
+        assertEquals(100, project2.getProgress());
+        assertEquals(50, project.getProgress());
+        project.remove(project2);
+        task3.setEstimatedTimeToComplete(10);
+        assertEquals(0, project.getProgress());
+        assertEquals(3, project.getEstimatedTimeToComplete());
+        assertEquals(10, project2.getEstimatedTimeToComplete());
+    }
+
+    // MODIFIES: this, task1, task2
+    // EFFECTS: adds task1 to project, and task2 and a new task to project2, nested in project;
+    //     returns the new task
+    private Task nestTwoTasks(Task task1, Task task2) {
+        Task task3 = new Task("Task3");
+        project.add(task1);
+        project2.add(task2);
+        project2.add(task3);
+        project.add(project2);
+        return task3;
+    }
+
     @Test
     public void testGetTasksDepreciated() {
         Task t1 = new Task("Task1");
@@ -288,4 +360,47 @@ public class TestProject {
             System.out.println(t.getDescription());
         }
     }
+
+    @Test
+    public void testIteratorOrder() {
+        Task task1 = addTaskWithPriority("Task 1", 4);
+        Task task2 = addTaskWithPriority("Task 2", 1);
+        Task task3 = addTaskWithPriority("Task 3", 3);
+        Task task4 = addTaskWithPriority("Task 4", 2);
+        Task task5 = addTaskWithPriority("Task 5", 1);
+        Iterator<Todo> iterator = project.iterator();
+        assertEquals(task2, iterator.next());
+        assertEquals(task5, iterator.next());
+        assertEquals(task4, iterator.next());
+        assertEquals(task3, iterator.next());
+        assertEquals(task1, iterator.next());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testIteratorExhausted() {
+        addTaskWithPriority("Task 1", 2);
+        Iterator<Todo> iterator = project.iterator();
+        iterator.next();
+        try {
+            iterator.next();
+            fail("NoSuchElementException should have thrown");
+        } catch (NoSuchElementException e) {
+            // expected
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds a new task with the given description and priority to project and returns it
+    private Task addTaskWithPriority(String description, int priority) {
+        Task task = new Task(description);
+        task.setPriority(new Priority(priority));
+        project.add(task);
+        return task;
+    }
+
+    @Test
+    public void testIteratorEmpty() {
+        assertFalse(project.iterator().hasNext());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,105 @@
+import model.Status;
+import model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import utility.SaveQueue;
+import utility.TaskJournal;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestSaveQueue {
+    private File dir;
+    private File snapshot;
+    private File journalFile;
+
+    @BeforeEach
+    public void runBefore() throws IOException {
+        dir = TempFiles.createDirectory("queue");
+        snapshot = new File(dir, "tasks.json");
+        journalFile = new File(dir, "tasks.journal");
+        Files.write(snapshot.toPath(), "[]".getBytes());
+    }
+
+    @AfterEach
+    public void runAfter() {
+        TempFiles.delete(dir);
+    }
+
+    @Test
+    public void testBurstIsCoalesced() throws Exception {
+        TaskJournal journal = new TaskJournal(snapshot, journalFile);
+        SaveQueue queue = new SaveQueue(journal, 50);
+        Task task1 = new Task("Task 1");
+        Task task2 = new Task("Task 2");
+        Task task3 = new Task("Task 3");
+        queue.saveTask(task1);
+        queue.saveTask(task2);
+        task1.setStatus(Status.DONE);
+        queue.saveTask(task1);
+        queue.saveTask(task3);
+        CompletableFuture<Void> saved = queue.removeTask(task2);
+        saved.get(5, TimeUnit.SECONDS);
+
+        assertEquals(3, Files.readAllLines(journalFile.toPath()).size());
+        List<Task> replayed = new TaskJournal(snapshot, journalFile).load();
+        assertEquals(2, replayed.size());
+        assertEquals(task1.getId(), replayed.get(0).getId());
+        assertEquals(Status.DONE, replayed.get(0).getStatus());
+        assertEquals(task3.getId(), replayed.get(1).getId());
+    }
+
+    @Test
+    public void testFlush() throws Exception {
+        TaskJournal journal = new TaskJournal(snapshot, journalFile);
+        SaveQueue queue = new SaveQueue(journal, 60 * 1000);
+        Task task = new Task("Task 1");
+        CompletableFuture<Void> saved = queue.saveTask(task);
+        assertFalse(saved.isDone());
+        queue.flush().get(5, TimeUnit.SECONDS);
+        assertTrue(saved.isDone());
+        assertEquals(1, new TaskJournal(snapshot, journalFile).load().size());
+        queue.flush().get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testFailingChangeIsRetriedAFewTimes() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        TaskJournal journal = new TaskJournal(snapshot, journalFile) {
+            @Override
+            public void append(String record) {
+                attempts.incrementAndGet();
+                throw new IllegalStateException("disk full");
+            }
+        };
+        SaveQueue queue = new SaveQueue(journal, 60 * 1000);
+        CompletableFuture<Void> saved = queue.saveTask(new Task("Task 1"));
+        for (int i = 0; i < SaveQueue.MAX_ATTEMPTS; i++) {
+            assertThrows(ExecutionException.class, () -> queue.flush().get(5, TimeUnit.SECONDS));
+        }
+        assertTrue(saved.isCompletedExceptionally());
+        queue.flush().get(5, TimeUnit.SECONDS);
+        assertEquals(SaveQueue.MAX_ATTEMPTS, attempts.get());
+    }
+
+    @Test
+    public void testChangeIsCapturedWhenQueued() throws Exception {
+        TaskJournal journal = new TaskJournal(snapshot, journalFile);
+        SaveQueue queue = new SaveQueue(journal, 60 * 1000);
+        Task task = new Task("Task 1");
+        queue.saveTask(task);
+        task.setStatus(Status.DONE);
+        queue.flush().get(5, TimeUnit.SECONDS);
+        List<Task> replayed = new TaskJournal(snapshot, journalFile).load();
+        assertEquals(Status.TODO, replayed.get(0).getStatus());
+    }
+}
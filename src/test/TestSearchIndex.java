@@ -0,0 +1,159 @@
+import model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import persistence.BinarySnapshot;
+import persistence.MappedTaskList;
+import utility.SearchIndex;
+import utility.TaskRepository;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestSearchIndex {
+    private TaskRepository repository;
+    private SearchIndex index;
+    private Task task1;
+    private Task task2;
+    private Task task3;
+
+    @BeforeEach
+    public void runBefore() {
+        task1 = new Task("Write the report for the project");
+        task2 = new Task("Review report; report back to Reilly");
+        task3 = new Task("Buy milk");
+        repository = new TaskRepository(new ArrayList<>(Arrays.asList(task1, task2, task3)));
+        index = new SearchIndex(repository);
+    }
+
+    @AfterEach
+    public void runAfter() {
+        index.close();
+    }
+
+    @Test
+    public void testSearch() {
+        assertEquals(Collections.singletonList(task3), index.search("MILK"));
+        assertEquals(Arrays.asList(task2, task1), index.search("report"));
+        assertEquals(Collections.singletonList(task1), index.search("report proj"));
+        assertTrue(index.search("report milk").isEmpty());
+        assertTrue(index.search("  ;; ").isEmpty());
+    }
+
+    @Test
+    public void testPrefixRanksBelowWholeWord() {
+        Task task4 = new Task("Reports archive");
+        repository.add(task4);
+        assertEquals(Arrays.asList(task2, task1, task4), index.search("report"));
+        // rarer tokens weigh more: "reports" occurs in one task, "report" in two
+        assertEquals(Arrays.asList(task2, task4, task1), index.search("r"));
+    }
+
+    @Test
+    public void testFollowsChanges() {
+        task3.setDescription("Buy bread");
+        assertTrue(index.search("milk").isEmpty());
+        assertEquals(Collections.singletonList(task3), index.search("bread"));
+        repository.remove(task1);
+        assertEquals(Collections.singletonList(task2), index.search("report"));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        File file = Files.createTempFile("tasks", ".search").toFile();
+        try {
+            index.save(file, 1);
+            index.close();
+            task3.setDescription("Buy bread");
+            index = SearchIndex.load(repository, file, 1);
+            assertEquals(3, index.size());
+            assertEquals(Arrays.asList(task2, task1), index.search("report"));
+            assertTrue(index.search("milk").isEmpty());
+            assertEquals(Collections.singletonList(task3), index.search("bread"));
+        } finally {
+            file.delete();
+            new File(file.getPath() + ".bak").delete();
+        }
+    }
+
+    @Test
+    public void testSnapshotIsIndexedOnFirstSearch() throws IOException {
+        File dir = TempFiles.createDirectory("search");
+        File file = new File(dir, "tasks.bin");
+        BinarySnapshot.write(repository.snapshot(), file);
+        MappedTaskList mapped = MappedTaskList.open(file);
+        TaskRepository mappedRepository = new TaskRepository(mapped);
+        SearchIndex mappedIndex = new SearchIndex(mappedRepository);
+        try {
+            mappedRepository.remove(task1);
+            assertEquals(2, mappedIndex.size());
+            assertFalse(mapped.isMaterialized(1));
+            assertEquals(1, mappedIndex.search("milk").size());
+            assertTrue(mapped.isMaterialized(1));
+        } finally {
+            mappedIndex.close();
+            TempFiles.delete(dir);
+        }
+    }
+
+    @Test
+    public void testSaveBeforeFirstSearch() throws IOException {
+        File file = Files.createTempFile("tasks", ".search").toFile();
+        try {
+            index.save(file, 1);
+            index.close();
+            index = SearchIndex.load(repository, file, 1);
+            index.save(file, 1);
+            index.close();
+            index = SearchIndex.load(repository, file, 1);
+            assertEquals(Arrays.asList(task2, task1), index.search("report"));
+        } finally {
+            file.delete();
+            new File(file.getPath() + ".bak").delete();
+        }
+    }
+
+    @Test
+    public void testDescriptionWithSameHashIsIndexedAgain() throws IOException {
+        File file = Files.createTempFile("tasks", ".search").toFile();
+        try {
+            task3.setDescription("Aa");
+            index.save(file, 1);
+            index.close();
+            task3.setDescription("BB");
+            assertEquals("Aa".hashCode(), "BB".hashCode());
+            index = SearchIndex.load(repository, file, 1);
+            assertTrue(index.search("aa").isEmpty());
+            assertEquals(Collections.singletonList(task3), index.search("bb"));
+        } finally {
+            file.delete();
+            new File(file.getPath() + ".bak").delete();
+        }
+    }
+
+    @Test
+    public void testOutOfDateIndexIsNotUsed() throws IOException {
+        File file = Files.createTempFile("tasks", ".search").toFile();
+        try {
+            index.save(file, 1);
+            index.close();
+            index = SearchIndex.load(repository, file, 2);
+            assertEquals(3, index.size());
+            assertEquals(Arrays.asList(task2, task1), index.search("report"));
+            index.save(file, 2);
+            index.close();
+            index = SearchIndex.load(repository, file, 2);
+            assertEquals(Collections.singletonList(task3), index.search("milk"));
+        } finally {
+            file.delete();
+            new File(file.getPath() + ".bak").delete();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+import model.Tag;
+import model.TagRegistry;
+import model.Task;
+import model.exceptions.EmptyStringException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTagRegistry {
+
+    @BeforeEach
+    public void runBefore() {
+        TagRegistry.reset();
+    }
+
+    @Test
+    public void testInternReturnsSameInstance() {
+        Tag tag = TagRegistry.intern("registry intern");
+        assertSame(tag, TagRegistry.intern("registry intern"));
+        assertSame(tag, TagRegistry.lookup("registry intern"));
+        assertNull(TagRegistry.lookup("registry never created"));
+        assertEquals(1, TagRegistry.getTags().size());
+    }
+
+    @Test
+    public void testReset() {
+        Task task = new Task("registry reset");
+        task.addTag("registry reset");
+        TagRegistry.reset();
+        assertTrue(TagRegistry.getTags().isEmpty());
+        assertTrue(TagRegistry.getTasksTagged("registry reset").isEmpty());
+        Task other = new Task("registry reset 2");
+        other.addTag("registry reset");
+        assertEquals(1, TagRegistry.getTasksTagged("registry reset").size());
+    }
+
+    @Test
+    public void testInternEmpty() {
+        try {
+            TagRegistry.intern("");
+            fail("EmptyStringException should have thrown");
+        } catch (EmptyStringException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testTasksShareTagInstance() {
+        Task task1 = new Task("registry task 1");
+        Task task2 = new Task("registry task 2");
+        task1.addTag("registry shared");
+        task2.addTag("registry shared");
+        Tag tag1 = task1.getTags().iterator().next();
+        Tag tag2 = task2.getTags().iterator().next();
+        assertSame(tag1, tag2);
+        assertTrue(tag1.containsTask(task1));
+        assertTrue(tag1.containsTask(task2));
+    }
+
+    @Test
+    public void testInvertedIndex() {
+        Task task1 = new Task("registry index 1");
+        Task task2 = new Task("registry index 2");
+        task1.addTag("registry index");
+        task2.addTag(TagRegistry.intern("registry index"));
+        assertEquals(2, TagRegistry.getTasksTagged("registry index").size());
+        assertTrue(TagRegistry.intern("registry index").containsTask(task2));
+        task1.removeTag("registry index");
+        assertEquals(1, TagRegistry.getTasksTagged("registry index").size());
+        assertTrue(TagRegistry.getTasksTagged("registry index").contains(task2));
+        assertTrue(TagRegistry.getTasksTagged("registry unknown").isEmpty());
+    }
+
+    @Test
+    public void testTasksTaggedIsACopy() {
+        Task task1 = new Task("registry copy 1");
+        task1.addTag("registry copy");
+        Set<Task> tagged = TagRegistry.getTasksTagged("registry copy");
+        new Task("registry copy 2").addTag("registry copy");
+        assertEquals(1, tagged.size());
+        tagged.clear();
+        assertEquals(2, TagRegistry.getTasksTagged("registry copy").size());
+    }
+}
@@ -0,0 +1,229 @@
+import model.DueDate;
+import model.Priority;
+import model.Status;
+import model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import persistence.BinarySnapshot;
+import persistence.MappedTaskList;
+import utility.TaskIndex;
+import utility.TaskRepository;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTaskIndex {
+    private TaskRepository repository;
+    private TaskIndex index;
+    private Task task1;
+    private Task task2;
+    private Task task3;
+    private Date now;
+
+    @BeforeEach
+    public void runBefore() {
+        now = new Date();
+        task1 = new Task("index task 1");
+        task1.setPriority(new Priority(1));
+        task1.setStatus(Status.IN_PROGRESS);
+        task1.addTag("index-tag");
+        task1.setDueDate(new DueDate(daysFromNow(2)));
+        task2 = new Task("index task 2");
+        task2.setPriority(new Priority(3));
+        task2.setStatus(Status.IN_PROGRESS);
+        task2.setDueDate(new DueDate(daysFromNow(10)));
+        task3 = new Task("index task 3");
+        task3.addTag("index-tag");
+        repository = new TaskRepository(new ArrayList<>(Arrays.asList(task1, task2, task3)));
+        index = new TaskIndex(repository);
+    }
+
+    @AfterEach
+    public void runAfter() {
+        index.close();
+    }
+
+    @Test
+    public void testBuckets() {
+        assertEquals(3, index.size());
+        assertEquals(Arrays.asList(task1, task2), index.getTasks(Status.IN_PROGRESS));
+        assertEquals(Collections.singletonList(task3), index.getTasks(Status.TODO));
+        assertEquals(Collections.singletonList(task1), index.getTasks(1));
+        assertEquals(Collections.singletonList(task2), index.getTasks(3));
+        assertEquals(Collections.singletonList(task3), index.getTasks(4));
+        assertEquals(3, TaskIndex.quadrantOf(new Priority(3)));
+    }
+
+    @Test
+    public void testFieldChangesMoveTasks() {
+        task3.setStatus(Status.DONE);
+        task3.setPriority(new Priority(2));
+        assertTrue(index.getTasks(Status.TODO).isEmpty());
+        assertEquals(Collections.singletonList(task3), index.getTasks(Status.DONE));
+        assertTrue(index.getTasks(4).isEmpty());
+        assertEquals(Collections.singletonList(task3), index.getTasks(2));
+
+        Date start = daysFromNow(-1);
+        Date end = daysFromNow(7);
+        assertEquals(Collections.singletonList(task1), index.query().dueBetween(start, end).list());
+        task1.setDueDate(new DueDate(daysFromNow(20)));
+        task3.setDueDate(new DueDate(daysFromNow(1)));
+        assertEquals(Collections.singletonList(task3), index.query().dueBetween(start, end).list());
+        task3.setDueDate(Task.NO_DUE_DATE);
+        assertTrue(index.query().dueBetween(start, end).list().isEmpty());
+    }
+
+    @Test
+    public void testRepositoryChanges() {
+        Task task4 = new Task("index task 4");
+        task4.setStatus(Status.UP_NEXT);
+        repository.add(task4);
+        repository.remove(task1);
+        assertEquals(3, index.size());
+        assertEquals(Collections.singletonList(task4), index.getTasks(Status.UP_NEXT));
+        assertEquals(Collections.singletonList(task2), index.getTasks(Status.IN_PROGRESS));
+        assertTrue(index.getTasks(1).isEmpty());
+        task1.setStatus(Status.TODO);
+        assertEquals(Collections.singletonList(task3), index.getTasks(Status.TODO));
+        assertEquals(Collections.singletonList(task3), index.query().taggedWith("index-tag").list());
+    }
+
+    @Test
+    public void testDueDateScans() {
+        Task late = addDueIn("index task late", -3);
+        Task soon = addDueIn("index task soon", 5);
+        assertEquals(Collections.singletonList(late), index.getOverdue());
+        assertEquals(Collections.singletonList(soon), index.getDueWithin(12));
+        assertEquals(Arrays.asList(late, soon, task1), index.getDueBetween(hoursFromNow(-4), daysFromNow(3)));
+        assertEquals(Collections.singletonList(late), index.query().overdue().list());
+        assertEquals(Arrays.asList(soon, task1), index.query().dueWithin(72).list());
+        assertTrue(index.getDueBetween(daysFromNow(3), daysFromNow(1)).isEmpty());
+    }
+
+    @Test
+    public void testDueDateRangeWithOtherRestrictions() {
+        List<Task> tagged = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            Task task = addDueIn("index task due " + i, i);
+            task.addTag("index-due");
+            tagged.add(task);
+        }
+        Date end = new Date(hoursFromNow(2).getTime() + 30 * 60 * 1000);
+        assertEquals(tagged.subList(0, 2), index.query().taggedWith("index-due").dueBetween(now, end).list());
+        assertEquals(tagged, index.query().taggedWith("index-due").dueWithin(72).list());
+        assertEquals(Collections.singletonList(task1), index.query().taggedWith("index-tag").dueWithin(72).list());
+        assertTrue(index.query().taggedWith("index-due").dueBetween(daysFromNow(3), daysFromNow(1)).list().isEmpty());
+    }
+
+    @Test
+    public void testDueDateChanges() {
+        Task late = addDueIn("index task late", -3);
+        Task soon = addDueIn("index task soon", 5);
+        late.setDueDate(new DueDate(hoursFromNow(1)));
+        assertTrue(index.getOverdue().isEmpty());
+        assertEquals(Arrays.asList(late, soon), index.getDueWithin(12));
+        soon.setDueDate(Task.NO_DUE_DATE);
+        assertEquals(Collections.singletonList(late), index.getDueWithin(12));
+        repository.remove(late);
+        assertTrue(index.getDueWithin(12).isEmpty());
+    }
+
+    // MODIFIES: repository
+    // EFFECTS: adds a new task with the given description, due in the given number of hours, and returns it
+    private Task addDueIn(String description, int hours) {
+        Task task = new Task(description);
+        task.setDueDate(new DueDate(hoursFromNow(hours)));
+        repository.add(task);
+        return task;
+    }
+
+    @Test
+    public void testQuadrantMoves() {
+        List<String> moves = new ArrayList<>();
+        List<List<Task>> quadrants = index.mirrorQuadrants(
+                (task, from, to) -> moves.add(task.getDescription() + " " + from + "->" + to));
+        assertEquals(Collections.singletonList(task1), quadrants.get(0));
+        assertEquals(Collections.singletonList(task3), quadrants.get(3));
+        task3.setPriority(new Priority(1));
+        task3.setPriority(new Priority(1));
+        task1.setStatus(Status.DONE);
+        task1.setDueDate(Task.NO_DUE_DATE);
+        assertEquals(Collections.singletonList("index task 3 4->1"), moves);
+        assertEquals(Arrays.asList(task1, task3), index.getTasks(1));
+    }
+
+    @Test
+    public void testQuadrantMovesOfRepositoryChanges() {
+        List<String> moves = new ArrayList<>();
+        TaskIndex.QuadrantListener listener =
+                (task, from, to) -> moves.add(task.getDescription() + " " + from + "->" + to);
+        index.mirrorQuadrants(listener);
+        Task task4 = new Task("index task 4");
+        repository.add(task4);
+        repository.remove(task2);
+        assertEquals(Arrays.asList("index task 4 0->4", "index task 2 3->0"), moves);
+
+        index.removeQuadrantListener(listener);
+        task4.setPriority(new Priority(2));
+        assertEquals(2, moves.size());
+    }
+
+    @Test
+    public void testQuery() {
+        assertEquals(Arrays.asList(task1, task2), index.query().urgent().list());
+        assertEquals(Collections.singletonList(task1), index.query().important().list());
+        assertEquals(Collections.singletonList(task2), index.query().withPriority(new Priority(3)).list());
+        assertEquals(Arrays.asList(task1, task3), index.query().taggedWith("index-tag").list());
+        assertTrue(index.query().taggedWith("index-tag").taggedWith("no-such-tag").list().isEmpty());
+        assertEquals(3, index.query().withStatus(Status.TODO, Status.IN_PROGRESS).count());
+        List<Task> found = index.query()
+                .urgent()
+                .withStatus(Status.IN_PROGRESS)
+                .taggedWith("index-tag")
+                .dueBetween(now, daysFromNow(7))
+                .list();
+        assertEquals(Collections.singletonList(task1), found);
+        task1.setStatus(Status.DONE);
+        assertEquals(0, index.query().urgent().withStatus(Status.IN_PROGRESS).taggedWith("index-tag").count());
+    }
+
+    @Test
+    public void testSnapshotIsIndexedOnFirstRead() throws IOException {
+        File dir = TempFiles.createDirectory("index");
+        File file = new File(dir, "tasks.bin");
+        BinarySnapshot.write(repository.snapshot(), file);
+        MappedTaskList mapped = MappedTaskList.open(file);
+        TaskRepository mappedRepository = new TaskRepository(mapped);
+        TaskIndex mappedIndex = new TaskIndex(mappedRepository);
+        try {
+            mappedRepository.remove(task3);
+            assertEquals(2, mappedIndex.size());
+            assertFalse(mapped.isMaterialized(0));
+            assertEquals(2, mappedIndex.query().withStatus(Status.IN_PROGRESS).count());
+            assertTrue(mapped.isMaterialized(0));
+        } finally {
+            mappedIndex.close();
+            TempFiles.delete(dir);
+        }
+    }
+
+    private Date hoursFromNow(int hours) {
+        return new Date(now.getTime() + hours * 60L * 60 * 1000);
+    }
+
+    private Date daysFromNow(int days) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime(now);
+        calendar.add(Calendar.DATE, days);
+        return calendar.getTime();
+    }
+}
@@ -0,0 +1,107 @@
+import model.Status;
+import model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import utility.TaskJournal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTaskJournal {
+    private File dir;
+    private File snapshot;
+    private File journalFile;
+    private TaskJournal journal;
+
+    @BeforeEach
+    public void runBefore() throws IOException {
+        dir = TempFiles.createDirectory("journal");
+        snapshot = new File(dir, "tasks.json");
+        journalFile = new File(dir, "tasks.journal");
+        Files.write(snapshot.toPath(), "[]".getBytes());
+        journal = new TaskJournal(snapshot, journalFile);
+    }
+
+    @AfterEach
+    public void runAfter() {
+        TempFiles.delete(dir);
+    }
+
+    @Test
+    public void testReplayPutEditRemove() {
+        List<Task> tasks = journal.load();
+        assertTrue(tasks.isEmpty());
+        Task task1 = new Task("Task 1");
+        Task task2 = new Task("Task 2");
+        Task task3 = new Task("Task 3");
+        journal.recordPut(task1);
+        journal.recordPut(task2);
+        journal.recordPut(task3);
+        task1.setStatus(Status.DONE);
+        task1.addTag("journal");
+        journal.recordPut(task1);
+        journal.recordRemove(task2);
+
+        List<Task> replayed = new TaskJournal(snapshot, journalFile).load();
+        assertEquals(2, replayed.size());
+        assertEquals(task1.getId(), replayed.get(0).getId());
+        assertEquals(Status.DONE, replayed.get(0).getStatus());
+        assertTrue(replayed.get(0).containsTag("journal"));
+        assertEquals(task3.getId(), replayed.get(1).getId());
+    }
+
+    @Test
+    public void testMalformedRecordSkipped() throws IOException {
+        Task task1 = new Task("Task 1");
+        journal.recordPut(task1);
+        Files.write(journalFile.toPath(), "{\"op\":\"put\",\"ta".getBytes(),
+                StandardOpenOption.APPEND);
+        List<Task> replayed = new TaskJournal(snapshot, journalFile).load();
+        assertEquals(1, replayed.size());
+        assertEquals(task1.getId(), replayed.get(0).getId());
+    }
+
+    @Test
+    public void testTornRecordDroppedBeforeAppend() throws IOException {
+        Task task1 = new Task("Task 1");
+        journal.recordPut(task1);
+        Files.write(journalFile.toPath(), "{\"op\":\"put\",\"ta".getBytes(),
+                StandardOpenOption.APPEND);
+        TaskJournal restarted = new TaskJournal(snapshot, journalFile);
+        assertEquals(1, restarted.load().size());
+        Task task2 = new Task("Task 2");
+        restarted.recordPut(task2);
+        List<Task> replayed = new TaskJournal(snapshot, journalFile).load();
+        assertEquals(2, replayed.size());
+        assertEquals(task2.getId(), replayed.get(1).getId());
+    }
+
+    @Test
+    public void testUnreadableJournalFailsLoad() {
+        assertTrue(journalFile.mkdir());
+        assertThrows(UncheckedIOException.class, () -> new TaskJournal(snapshot, journalFile).load());
+    }
+
+    @Test
+    public void testCompaction() throws Exception {
+        List<Task> tasks = journal.load();
+        for (int i = 0; i < TaskJournal.COMPACT_THRESHOLD; i++) {
+            Task task = new Task("Task " + i);
+            tasks.add(task);
+            journal.recordPut(task);
+        }
+        journal.compaction().get(5, TimeUnit.SECONDS);
+        assertEquals(0, journalFile.length());
+        List<Task> replayed = new TaskJournal(snapshot, journalFile).load();
+        assertEquals(TaskJournal.COMPACT_THRESHOLD, replayed.size());
+        assertEquals(tasks.get(10).getId(), replayed.get(10).getId());
+    }
+}
@@ -0,0 +1,131 @@
+import model.ModelEvents;
+import model.ModelListener;
+import model.Priority;
+import model.Status;
+import model.Tag;
+import model.TagRegistry;
+import model.Task;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import parsers.TaskParser;
+import persistence.Jsonifier;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTaskParser {
+    private static final String TASKS = "[{\"due-date\":{\"month\":2,\"hour\":0,\"year\":2019,\"day\":1,\"minute\":14},"
+            + "\"description\":\"Download the syllabus. \",\"priority\":{\"important\":true,\"urgent\":true},"
+            + "\"tags\":[{\"name\":\"cpsc210\"},{\"name\":\"cheese\"}],\"status\":\"DONE\"},"
+            + "{\"malformed\":true},"
+            + "{\"due-date\":null,\"description\":\"Read the syllabus! \",\"priority\":{\"important\":false,"
+            + "\"urgent\":false},\"tags\":[{\"name\":\"cpsc210\"}],\"status\":\"TODO\"}]";
+    private TaskParser parser;
+
+    @BeforeEach
+    public void runBefore() {
+        parser = new TaskParser();
+    }
+
+    @Test
+    public void testStreamingParseMatchesParse() {
+        List<Task> expected = parser.parse(TASKS);
+        List<Task> streamed = parser.parse(new StringReader(TASKS));
+        assertEquals(2, streamed.size());
+        assertEquals(expected.get(0).getDescription(), streamed.get(0).getDescription());
+        assertEquals(expected.get(1).getDescription(), streamed.get(1).getDescription());
+        assertEquals(Status.DONE, streamed.get(0).getStatus());
+        assertEquals(new Priority(1), streamed.get(0).getPriority());
+        assertTrue(streamed.get(0).containsTag("cheese"));
+        assertNull(streamed.get(1).getDueDate());
+    }
+
+    @Test
+    public void testStreamingWriterMatchesJsonifier() throws IOException {
+        List<Task> tasks = parser.parse(TASKS);
+        tasks.add(new Task("Quote \" and \\ and unicode \u00e9"));
+        StringWriter writer = new StringWriter();
+        Jsonifier.writeTaskList(tasks, writer);
+        JSONArray expected = new JSONArray(Jsonifier.taskListToJson(tasks).toString());
+        assertTrue(new JSONArray(writer.toString()).similar(expected));
+        assertEquals(tasks, parser.parse(new StringReader(writer.toString())));
+    }
+
+    @Test
+    public void testParallelParseKeepsOrder() throws IOException {
+        List<Task> tasks = makeTaggedTasks(3 * TaskParser.CHUNK_SIZE + 7);
+        StringWriter writer = new StringWriter();
+        Jsonifier.writeTaskList(tasks, writer);
+        String json = "[{\"malformed\":true}," + writer.toString().substring(1);
+        List<Task> parsed = parser.parseParallel(new StringReader(json), new ForkJoinPool(4));
+        assertEquals(tasks.size(), parsed.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(tasks.get(i).getId(), parsed.get(i).getId());
+            assertEquals(tasks.get(i), parsed.get(i));
+        }
+        Set<Task> tagged = TagRegistry.getTasksTagged("parallel 3");
+        for (Task t : parsed) {
+            Tag tag = t.getTags().iterator().next();
+            assertSame(TagRegistry.lookup(tag.getName()), tag);
+        }
+        assertEquals(tasks.size() / 5, tagged.size());
+        assertTrue(parser.parseParallel(new StringReader("[]")).isEmpty());
+    }
+
+    @Test
+    public void testParallelParseOnOneThread() throws IOException {
+        List<Task> tasks = makeTaggedTasks(5 * TaskParser.CHUNK_SIZE + 1);
+        StringWriter writer = new StringWriter();
+        Jsonifier.writeTaskList(tasks, writer);
+        assertEquals(tasks, parser.parseParallel(new StringReader(writer.toString()), new ForkJoinPool(1)));
+    }
+
+    // EFFECTS: returns count new tasks, the i-th of them tagged "parallel (i % 5)"
+    private List<Task> makeTaggedTasks(int count) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Task task = new Task("Parallel " + i);
+            task.addTag("parallel " + (i % 5));
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    @Test
+    public void testParseFiresNoEvents() {
+        List<Object> fired = new ArrayList<>();
+        ModelListener listener = fired::addAll;
+        ModelEvents.addListener(listener);
+        try {
+            assertEquals(2, parser.parse(TASKS).size());
+            assertEquals(2, parser.parseParallel(new StringReader(TASKS)).size());
+        } finally {
+            ModelEvents.removeListener(listener);
+        }
+        assertTrue(fired.isEmpty());
+    }
+
+    @Test
+    public void testStreamingParseEmpty() {
+        assertTrue(parser.parse(new StringReader(" [ ] ")).isEmpty());
+    }
+
+    @Test
+    public void testStreamingParseNotAnArray() {
+        try {
+            parser.parse(new StringReader("{}"));
+            fail("JSONException should have thrown");
+        } catch (JSONException e) {
+            // expected
+        }
+    }
+}
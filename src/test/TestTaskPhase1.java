@@ -7,6 +7,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.Calendar;
+import java.util.HashSet;
+import java.util.Set;
 
 import static model.Status.DONE;
 import static model.Status.TODO;
@@ -53,9 +55,13 @@ public class TestTaskPhase1 {
         String notATask = "not a task";
         assertFalse(task.equals(notATask));
         Task task2 = new Task("Task2##urgent;DONE;");
-        Task sameTask = new Task("This is the description");
-        assertTrue(task.equals(sameTask));
+        Task sameDescription = new Task("This is the description");
+        assertFalse(task.equals(sameDescription));
         assertFalse(task.equals(task2));
+        Set<Task> tasks = new HashSet<>();
+        tasks.add(task);
+        task.setDescription("Edited description");
+        assertTrue(tasks.contains(task));
 
     }
 
@@ -1,4 +1,5 @@
 import model.Tag;
+import model.TagRegistry;
 import model.Task;
 import model.exceptions.EmptyStringException;
 import model.exceptions.InvalidProgressException;
@@ -18,9 +19,9 @@ class TestTaskPhase3 {
     @BeforeEach
     public void runBefore() {
         task = new Task("Task 1");
-        tag1 = new Tag("Tag 1");
-        tag2 = new Tag("Tag 2");
-        tag3 = new Tag("Tag 3");
+        tag1 = TagRegistry.intern("Tag 1");
+        tag2 = TagRegistry.intern("Tag 2");
+        tag3 = TagRegistry.intern("Tag 3");
     }
 
     @Test
@@ -29,7 +30,7 @@ class TestTaskPhase3 {
             task.addTag(tag1);
             assertTrue(task.containsTag(tag1));
             assertTrue(task.containsTag("Tag 1"));
-            assertTrue(task.containsTag(new Tag("Tag 1")));
+            assertTrue(task.containsTag(TagRegistry.intern("Tag 1")));
             assertTrue(tag1.containsTask(task));
         } catch (NullArgumentException e) {
             fail("Should not have thrown NullArgumentException");
@@ -41,12 +42,12 @@ class TestTaskPhase3 {
         task.addTag("Tag 1");
         assertTrue(task.containsTag(tag1));
         assertTrue(task.containsTag("Tag 1"));
-        assertTrue(task.containsTag(new Tag("Tag 1")));
+        assertTrue(task.containsTag(TagRegistry.intern("Tag 1")));
     }
 
     @Test
     public void testTaskAddOneTagAlternate() {
-        task.addTag(new Tag("Tag 3"));
+        task.addTag(TagRegistry.intern("Tag 3"));
         assertTrue(task.containsTag(tag3));
         assertTrue(task.containsTag("Tag 3"));
     }
@@ -59,8 +60,8 @@ class TestTaskPhase3 {
         assertTrue(task.containsTag(tag2));
         assertTrue(task.containsTag("Tag 1"));
         assertTrue(task.containsTag("Tag 2"));
-        assertTrue(task.containsTag(new Tag("Tag 1")));
-        assertTrue(task.containsTag(new Tag("Tag 2")));
+        assertTrue(task.containsTag(TagRegistry.intern("Tag 1")));
+        assertTrue(task.containsTag(TagRegistry.intern("Tag 2")));
         assertTrue(tag1.containsTask(task));
         assertTrue(tag2.containsTask(task));
     }
@@ -73,20 +74,20 @@ class TestTaskPhase3 {
         assertTrue(task.containsTag(tag2));
         assertTrue(task.containsTag("Tag 1"));
         assertTrue(task.containsTag("Tag 2"));
-        assertTrue(task.containsTag(new Tag("Tag 1")));
-        assertTrue(task.containsTag(new Tag("Tag 2")));
+        assertTrue(task.containsTag(TagRegistry.intern("Tag 1")));
+        assertTrue(task.containsTag(TagRegistry.intern("Tag 2")));
     }
 
     @Test
     public void testTaskAddMultipleTagsAlternateWay() {
-        task.addTag(new Tag("Tag 1"));
-        task.addTag(new Tag("Tag 2"));
+        task.addTag(TagRegistry.intern("Tag 1"));
+        task.addTag(TagRegistry.intern("Tag 2"));
         assertTrue(task.containsTag(tag1));
         assertTrue(task.containsTag(tag2));
         assertTrue(task.containsTag("Tag 1"));
         assertTrue(task.containsTag("Tag 2"));
-        assertTrue(task.containsTag(new Tag("Tag 1")));
-        assertTrue(task.containsTag(new Tag("Tag 2")));
+        assertTrue(task.containsTag(TagRegistry.intern("Tag 1")));
+        assertTrue(task.containsTag(TagRegistry.intern("Tag 2")));
     }
 
     @Test
@@ -141,7 +142,7 @@ class TestTaskPhase3 {
         task.addTag(tag2);
         assertTrue(task.containsTag(tag1));
         assertTrue(task.containsTag(tag2));
-        task.removeTag(new Tag("Tag 1"));
+        task.removeTag(TagRegistry.intern("Tag 1"));
         assertFalse(task.containsTag(tag1));
         assertFalse(task.getTags().isEmpty());
     }
@@ -178,8 +179,8 @@ class TestTaskPhase3 {
         task.addTag(tag2);
         assertTrue(task.containsTag(tag1));
         assertTrue(task.containsTag(tag2));
-        task.removeTag(new Tag("Tag 1"));
-        task.removeTag(new Tag("Tag 2"));
+        task.removeTag(TagRegistry.intern("Tag 1"));
+        task.removeTag(TagRegistry.intern("Tag 2"));
         assertFalse(task.containsTag(tag1));
         assertFalse(task.containsTag(tag2));
         assertTrue(task.getTags().isEmpty());
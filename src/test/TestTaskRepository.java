@@ -0,0 +1,126 @@
+import model.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import persistence.BinarySnapshot;
+import persistence.MappedTaskList;
+import utility.TaskRepository;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTaskRepository {
+    private TaskRepository repository;
+    private Task task1;
+    private Task task2;
+
+    @BeforeEach
+    public void runBefore() {
+        task1 = new Task("repository task 1");
+        task2 = new Task("repository task 2");
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(task1);
+        tasks.add(task2);
+        repository = new TaskRepository(tasks);
+    }
+
+    @Test
+    public void testSnapshotDoesNotChange() {
+        List<Task> before = repository.snapshot();
+        Task task3 = new Task("repository task 3");
+        repository.add(task3);
+        repository.remove(task1);
+        assertEquals(2, before.size());
+        assertSame(task1, before.get(0));
+        assertEquals(2, repository.size());
+        assertSame(task2, repository.snapshot().get(0));
+        assertSame(task3, repository.snapshot().get(1));
+        assertFalse(repository.contains(task1));
+        try {
+            before.add(task3);
+            fail("UnsupportedOperationException should have been thrown");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testMirror() {
+        List<Task> mirror = repository.mirror((r, removed, added) -> { });
+        assertEquals(repository.snapshot(), mirror);
+        List<String> changes = new ArrayList<>();
+        repository.addListener((r, removed, added) -> changes.add(removed.size() + "-" + added.size()));
+        Task task3 = new Task("repository task 3");
+        repository.update(Collections.singleton(task2), Collections.singletonList(task3));
+        repository.remove(task2);
+        assertEquals(1, changes.size());
+        assertEquals("1-1", changes.get(0));
+    }
+
+    @Test
+    public void testConcurrentReadersSeeWholeWrites() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        try {
+            Future<?> writer = pool.submit(this::writePairs);
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < 2; r++) {
+                readers.add(pool.submit(() -> readWhile(writer)));
+            }
+            writer.get(30, TimeUnit.SECONDS);
+            for (Future<?> reader : readers) {
+                reader.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(1002, repository.size());
+    }
+
+    // MODIFIES: repository
+    // EFFECTS: appends 500 pairs of tasks, one pair per write
+    private void writePairs() {
+        for (int i = 0; i < 500; i++) {
+            List<Task> pair = new ArrayList<>();
+            pair.add(new Task("repository a " + i));
+            pair.add(new Task("repository b " + i));
+            repository.update(Collections.emptySet(), pair);
+        }
+    }
+
+    // EFFECTS: checks that every snapshot read until writer is done holds whole pairs
+    private void readWhile(Future<?> writer) {
+        while (!writer.isDone()) {
+            List<Task> snapshot = repository.snapshot();
+            assertEquals(0, snapshot.size() % 2);
+            for (Task t : snapshot) {
+                assertNotNull(t);
+            }
+        }
+    }
+
+    @Test
+    public void testMappedSnapshotIsNotBuilt() throws Exception {
+        File dir = TempFiles.createDirectory("repository");
+        try {
+            File file = new File(dir, "tasks.bin");
+            BinarySnapshot.write(repository.snapshot(), file);
+            MappedTaskList mapped = MappedTaskList.open(file);
+            TaskRepository mappedRepository = new TaskRepository(mapped);
+            Task task3 = new Task("repository task 3");
+            mappedRepository.add(task3);
+            mappedRepository.remove(task3);
+            assertEquals(2, mappedRepository.size());
+            assertFalse(mapped.isMaterialized(0));
+            assertFalse(mapped.isMaterialized(1));
+        } finally {
+            TempFiles.delete(dir);
+        }
+    }
+}
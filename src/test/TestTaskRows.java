@@ -0,0 +1,70 @@
+import model.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import utility.TaskRows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTaskRows {
+    private List<Task> tasks;
+    private TaskRows rows;
+
+    @BeforeEach
+    public void runBefore() {
+        tasks = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            tasks.add(new Task("Row " + i));
+        }
+        rows = new TaskRows(tasks);
+    }
+
+    @Test
+    public void testGetAndIndexOf() {
+        assertEquals(5, rows.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertSame(tasks.get(i), rows.get(i));
+            assertEquals(i, rows.indexOf(tasks.get(i)));
+        }
+        assertEquals(-1, rows.indexOf(new Task("Not a row")));
+        assertThrows(IndexOutOfBoundsException.class, () -> rows.get(5));
+        assertThrows(IndexOutOfBoundsException.class, () -> rows.get(-1));
+    }
+
+    @Test
+    public void testAddAndRemove() {
+        assertEquals(1, rows.remove(tasks.get(1)));
+        assertEquals(-1, rows.remove(tasks.get(1)));
+        Task added = new Task("Added");
+        rows.add(added);
+        assertEquals(5, rows.size());
+        assertSame(tasks.get(2), rows.get(1));
+        assertEquals(4, rows.indexOf(added));
+        assertSame(added, rows.get(4));
+        assertEquals(3, rows.indexOf(tasks.get(4)));
+    }
+
+    @Test
+    public void testManyChangesMatchAList() {
+        Random random = new Random(210);
+        List<Task> expected = new ArrayList<>(tasks);
+        for (int i = 0; i < 2000; i++) {
+            if (!expected.isEmpty() && random.nextInt(3) == 0) {
+                int row = random.nextInt(expected.size());
+                assertEquals(row, rows.remove(expected.remove(row)));
+            } else {
+                Task task = new Task("Row " + i);
+                expected.add(task);
+                rows.add(task);
+            }
+        }
+        assertEquals(expected.size(), rows.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSame(expected.get(i), rows.get(i));
+            assertEquals(i, rows.indexOf(expected.get(i)));
+        }
+    }
+}
@@ -0,0 +1,154 @@
+import model.ModelEvents;
+import model.ModelListener;
+import model.Priority;
+import model.Project;
+import model.Status;
+import model.Task;
+import model.exceptions.InvalidProgressException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import utility.SaveQueue;
+import utility.TaskJournal;
+import utility.TaskRepository;
+import utility.TaskTransaction;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTaskTransaction {
+    private File dir;
+    private File snapshot;
+    private File journalFile;
+    private SaveQueue saveQueue;
+    private TaskRepository tasks;
+    private Task task1;
+    private Task task2;
+    private List<Integer> deliveries;
+    private ModelListener listener;
+
+    @BeforeEach
+    public void runBefore() throws IOException {
+        dir = TempFiles.createDirectory("transaction");
+        snapshot = new File(dir, "tasks.json");
+        journalFile = new File(dir, "tasks.journal");
+        Files.write(snapshot.toPath(), "[]".getBytes());
+        saveQueue = new SaveQueue(new TaskJournal(snapshot, journalFile), 60 * 1000);
+        task1 = new Task("transaction task 1");
+        task2 = new Task("transaction task 2");
+        List<Task> list = new ArrayList<>();
+        list.add(task1);
+        list.add(task2);
+        tasks = new TaskRepository(list);
+        deliveries = new ArrayList<>();
+        listener = events -> deliveries.add(events.size());
+        ModelEvents.addListener(listener);
+    }
+
+    @AfterEach
+    public void runAfter() {
+        TempFiles.delete(dir);
+        ModelEvents.removeListener(listener);
+    }
+
+    @Test
+    public void testCommit() throws Exception {
+        Task task3 = new Task("transaction task 3");
+        CompletableFuture<Void> committed = TaskTransaction.run(new TaskTransaction(tasks, saveQueue), transaction -> {
+            transaction.edit(task1).setStatus(Status.DONE);
+            transaction.edit(task1).setProgress(100);
+            transaction.remove(task2);
+            transaction.add(task3);
+            assertSame(task2, tasks.snapshot().get(1));
+            assertTrue(deliveries.isEmpty());
+        });
+        assertEquals(2, tasks.size());
+        assertSame(task1, tasks.snapshot().get(0));
+        assertSame(task3, tasks.snapshot().get(1));
+        assertEquals(1, deliveries.size());
+        assertEquals(2, (int) deliveries.get(0));
+        assertFalse(committed.isDone());
+        saveQueue.flush().get(5, TimeUnit.SECONDS);
+        assertSaved(task3);
+    }
+
+    // EFFECTS: checks that the journal holds task1, done, and added, and nothing else
+    private void assertSaved(Task added) {
+        List<Task> saved = new TaskJournal(snapshot, journalFile).load();
+        assertEquals(2, saved.size());
+        for (Task t : saved) {
+            if (t.getId() == task1.getId()) {
+                assertEquals(Status.DONE, t.getStatus());
+            } else {
+                assertEquals(added.getId(), t.getId());
+            }
+        }
+    }
+
+    @Test
+    public void testRollbackOnException() {
+        Project project = new Project("transaction project");
+        project.add(task1);
+        task1.addTag("transaction tag");
+        deliveries.clear();
+        try {
+            TaskTransaction.run(new TaskTransaction(tasks, saveQueue), this::editThenFail);
+            fail("InvalidProgressException should have been thrown");
+        } catch (InvalidProgressException e) {
+            // expected
+        }
+        assertEquals("transaction task 1", task1.getDescription());
+        assertEquals(Status.TODO, task1.getStatus());
+        assertFalse(task1.getPriority().isUrgent());
+        assertEquals(0, task1.getProgress());
+        assertEquals(0, project.getProgress());
+        assertTrue(task1.containsTag("transaction tag"));
+        assertEquals(1, task1.getTags().size());
+        assertEquals(2, tasks.size());
+        assertTrue(deliveries.isEmpty());
+    }
+
+    // MODIFIES: transaction, task1
+    // EFFECTS: edits task1 and removes task2 in transaction, then sets an invalid progress
+    //   throws InvalidProgressException
+    private void editThenFail(TaskTransaction transaction) {
+        transaction.edit(task1);
+        task1.setDescription("transaction edited ## done; #transaction other");
+        task1.removeTag("transaction tag");
+        Priority priority = new Priority(4);
+        priority.setUrgent(true);
+        task1.setPriority(priority);
+        task1.setProgress(60);
+        transaction.remove(task2);
+        task1.setProgress(120);
+    }
+
+    @Test
+    public void testAddThenRemove() {
+        Task task3 = new Task("transaction task 3");
+        TaskTransaction transaction = new TaskTransaction(tasks, saveQueue);
+        transaction.add(task3);
+        transaction.remove(task3);
+        transaction.commit();
+        assertEquals(2, tasks.size());
+    }
+
+    @Test
+    public void testEndedTransaction() {
+        TaskTransaction transaction = new TaskTransaction(tasks, saveQueue);
+        transaction.rollback();
+        try {
+            transaction.commit();
+            fail("IllegalStateException should have been thrown");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+}
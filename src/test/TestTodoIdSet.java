@@ -0,0 +1,65 @@
+import model.*;
+import org.json.JSONArray;
+import org.junit.jupiter.api.Test;
+import parsers.TaskParser;
+import persistence.Jsonifier;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTodoIdSet {
+
+    @Test
+    public void testIdsAreUnique() {
+        Task task1 = new Task("Same description");
+        Task task2 = new Task("Same description");
+        assertNotEquals(task1.getId(), task2.getId());
+        assertNotEquals(task1, task2);
+    }
+
+    @Test
+    public void testRestoredIdAdvancesCounter() {
+        Task restored = new Task(new Task("Task").getId() + 1000, "Restored");
+        Task next = new Task("Next");
+        assertTrue(next.getId() > restored.getId());
+    }
+
+    @Test
+    public void testMembershipSurvivesEdits() {
+        TodoIdSet<Task> set = new TodoIdSet<>();
+        Task task = new Task("Task 1");
+        set.add(task);
+        task.setStatus(Status.DONE);
+        task.setDescription("Edited description");
+        task.setPriority(new Priority(1));
+        assertTrue(set.contains(task));
+        assertSame(task, set.get(task.getId()));
+        assertFalse(set.contains(new Task("Edited description")));
+        assertTrue(set.remove(task));
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    public void testTagMembershipSurvivesEdits() {
+        Task task = new Task("Task 1");
+        task.addTag("id tag");
+        task.setStatus(Status.IN_PROGRESS);
+        task.setDescription("Edited description");
+        assertTrue(TagRegistry.lookup("id tag").containsTask(task));
+        task.removeTag("id tag");
+        assertFalse(TagRegistry.lookup("id tag").containsTask(task));
+    }
+
+    @Test
+    public void testIdIsPersisted() {
+        Task task1 = new Task("Task 1");
+        Task task2 = new Task("Task 2");
+        JSONArray json = Jsonifier.taskListToJson(Arrays.asList(task1, task2));
+        List<Task> parsed = new TaskParser().parse(json.toString());
+        assertEquals(2, parsed.size());
+        assertEquals(task1.getId(), parsed.get(0).getId());
+        assertEquals(task2.getId(), parsed.get(1).getId());
+    }
+}